@@ -1,5 +1,6 @@
 package com.todo.api.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -7,20 +8,26 @@ import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import com.todo.api.model.AuthenticatedUser;
 import com.todo.api.repository.UserRepository;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
+@EnableConfigurationProperties({JwtProperties.class, PasswordHashingProperties.class, RevocationProperties.class,
+		LoginThrottleProperties.class, CacheProperties.class})
 @RequiredArgsConstructor
 public class ApplicationConfig {
 	
 	private final UserRepository userRepository;
+	private final UserDetailsCache userDetailsCache;
 
 	@Bean
 	public UserDetailsService userDetailsService() {
@@ -28,17 +35,19 @@ public class ApplicationConfig {
 			
 			@Override
 			public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-				return userRepository.findByEmail(username)
-						.orElseThrow(() -> new UsernameNotFoundException("User not Found"));
+				return userDetailsCache.get(username, email -> userRepository.findByEmail(email)
+						.map(AuthenticatedUser::from)
+						.orElseThrow(() -> new UsernameNotFoundException("User not Found")));
 			}
 		};
 	}
 	
 	@Bean
-	public AuthenticationProvider authenticationProvider() {
+	public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
 		DaoAuthenticationProvider authProvider  = new DaoAuthenticationProvider();
 		authProvider.setUserDetailsService(userDetailsService());
-		authProvider.setPasswordEncoder(passwordEncoder());
+		authProvider.setPasswordEncoder(passwordEncoder);
+		authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
 		return authProvider;
 	}
 	
@@ -48,7 +57,28 @@ public class ApplicationConfig {
 	}
 	
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public UserDetailsPasswordService userDetailsPasswordService() {
+		return new UserDetailsPasswordService() {
+			
+			@Override
+			public UserDetails updatePassword(UserDetails user, String newPassword) {
+				userRepository.updatePassword(user.getUsername(), newPassword);
+				userDetailsCache.invalidate(user.getUsername());
+				AuthenticatedUser authenticatedUser = (AuthenticatedUser) user;
+				return new AuthenticatedUser(authenticatedUser.getId(), authenticatedUser.getEmail(), newPassword, authenticatedUser.getRole());
+			}
+		};
+	}
+	
+	@Bean(destroyMethod = "shutdown")
+	public PasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+		CalibratedBCryptPasswordEncoder bcrypt = properties.getStrength() > 0
+				? new CalibratedBCryptPasswordEncoder(properties.getStrength())
+				: CalibratedBCryptPasswordEncoder.calibrate(properties.getTargetDuration(),
+						properties.getMinimumStrength(), properties.getMaximumStrength());
+		Gauge.builder("password.hashing.strength", bcrypt, CalibratedBCryptPasswordEncoder::getStrength)
+				.strongReference(true)
+				.register(meterRegistry);
+		return new BoundedPasswordEncoder(bcrypt, properties, meterRegistry);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.todo.api.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.todo.api.exception.PasswordHashingUnavailableException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Runs the delegate encoder on a fixed-size pool with a bounded queue so that a burst of
+ * logins or signups cannot occupy every request thread. When the queue is full the call
+ * fails fast with {@link PasswordHashingUnavailableException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final long retryAfterSeconds;
+	private final Timer encodeTimer;
+	private final Timer matchesTimer;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		int threads = properties.resolveThreads();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+				new CustomizableThreadFactory("password-hash-"),
+				new ThreadPoolExecutor.AbortPolicy());
+		this.retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+		this.encodeTimer = Timer.builder("password.hashing.duration")
+				.tag("operation", "encode")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+		this.matchesTimer = Timer.builder("password.hashing.duration")
+				.tag("operation", "matches")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+		new ExecutorServiceMetrics(executor, "passwordHashing", Tags.empty()).bindTo(meterRegistry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return submit(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return submit(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private <T> T submit(Callable<T> task) {
+		Future<T> future;
+		try {
+			future = executor.submit(task);
+		} catch (RejectedExecutionException ex) {
+			throw new PasswordHashingUnavailableException("Server is busy, please retry later.", retryAfterSeconds);
+		}
+		try {
+			return future.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+			throw new PasswordHashingUnavailableException("Password hashing was interrupted.", retryAfterSeconds);
+		} catch (ExecutionException ex) {
+			if(ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.todo.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "application.cache")
+public class CacheProperties {
+
+	private final UserDetails userDetails = new UserDetails();
+
+	private final TodoList todoList = new TodoList();
+
+	private final EncodedTodoList encodedTodoList = new EncodedTodoList();
+
+	/**
+	 * Principals loaded by JwtAuthenticationFilter, keyed by email.
+	 */
+	@Data
+	public static class UserDetails {
+
+		private long maximumSize = 10_000;
+
+		private Duration timeToLive = Duration.ofMinutes(5);
+	}
+
+	/**
+	 * Todo lists keyed by the user's list version. Stale versions are never read again, so the
+	 * time to live only drops idle entries; it applies to the encoded lists as well.
+	 */
+	@Data
+	public static class TodoList {
+
+		/**
+		 * Number of cached todos across all lists.
+		 */
+		private long maximumWeight = 1_000_000;
+
+		private Duration timeToLive = Duration.ofSeconds(30);
+	}
+
+	@Data
+	public static class EncodedTodoList {
+
+		/**
+		 * Bytes of JSON and gzip held across all lists.
+		 */
+		private long maximumBytes = 64 * 1024 * 1024;
+
+		/**
+		 * JSON shorter than this is stored uncompressed only.
+		 */
+		private int gzipMinimumSize = 1024;
+
+		/**
+		 * Keep the bytes in direct buffers, outside the heap the collector has to scan.
+		 */
+		private boolean offHeap = false;
+	}
+}
@@ -0,0 +1,57 @@
+package com.todo.api.config;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder whose cost is chosen from a target hashing time measured on the running
+ * machine. Unlike BCryptPasswordEncoder it asks for a rehash whenever a stored hash uses a
+ * different cost, higher or lower.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+	private static final Pattern STRENGTH = Pattern.compile("\\A\\$2[abxy]?\\$(\\d\\d)\\$");
+	private static final int SAMPLES = 5;
+
+	private final int strength;
+
+	public CalibratedBCryptPasswordEncoder(int strength) {
+		super(strength);
+		this.strength = strength;
+	}
+
+	public static CalibratedBCryptPasswordEncoder calibrate(Duration target, int minimumStrength, int maximumStrength) {
+		BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minimumStrength);
+		String encoded = probe.encode("calibration");
+		probe.matches("calibration", encoded);
+		long best = Long.MAX_VALUE;
+		for(int i = 0; i < SAMPLES; i++) {
+			long start = System.nanoTime();
+			probe.matches("calibration", encoded);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		// every extra cost step doubles the work
+		int strength = minimumStrength;
+		while(strength < maximumStrength && best * 2 <= target.toNanos()) {
+			best *= 2;
+			strength++;
+		}
+		return new CalibratedBCryptPasswordEncoder(strength);
+	}
+
+	public int getStrength() {
+		return strength;
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		if(encodedPassword == null) {
+			return false;
+		}
+		Matcher matcher = STRENGTH.matcher(encodedPassword);
+		return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+	}
+}
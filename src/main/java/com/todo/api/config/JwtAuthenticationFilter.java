@@ -2,6 +2,7 @@ package com.todo.api.config;
 
 import java.io.IOException;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -11,6 +12,10 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.todo.api.config.JwtProperties.PrincipalMode;
+import com.todo.api.model.AuthenticatedUser;
+
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,12 +28,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter{
 	
 	private final JwtService jwtService;
 	private final UserDetailsService userDetailsService;
+	private final JwtProperties jwtProperties;
+	private final ObjectProvider<TokenRevocationCheck> revocationCheck;
 
 	@Override
 	protected void doFilterInternal(@NonNull HttpServletRequest request,@NonNull  HttpServletResponse response,@NonNull  FilterChain filterChain)
 			throws ServletException, IOException {
 		final String authHeader =  request.getHeader("Authorization");
 		final String jwt;
+		final VerifiedToken token;
 		final String userEmail;
 		
 		if(authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -37,10 +45,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter{
 		}
 		
 		jwt = authHeader.substring(7);
-		userEmail  = jwtService.extractUsername(jwt);
+		try {
+			token = jwtService.verify(jwt);
+		} catch (JwtException | IllegalArgumentException ex) {
+			// expired or malformed: continue anonymously so /auth/refresh stays reachable
+			filterChain.doFilter(request, response);
+			return ;
+		}
+		userEmail  = token.getSubject();
 		if(userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-			UserDetails userDetails  = this.userDetailsService.loadUserByUsername(userEmail);
-			if(jwtService.isTokenValid(jwt, userDetails)) {
+			UserDetails userDetails  = loadPrincipal(token);
+			if(jwtService.isTokenValid(token, userDetails) && !isRevoked(token)) {
 				UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
 						null, userDetails.getAuthorities());
 				authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -51,5 +66,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter{
 		
 		
 	}
+	
+	private UserDetails loadPrincipal(VerifiedToken token) {
+		if(jwtProperties.getPrincipalMode() == PrincipalMode.STATELESS
+				&& token.getUserId() != null && token.getRole() != null) {
+			return new AuthenticatedUser(token.getUserId(), token.getSubject(), null, token.getRole());
+		}
+		return this.userDetailsService.loadUserByUsername(token.getSubject());
+	}
+	
+	private boolean isRevoked(VerifiedToken token) {
+		TokenRevocationCheck check = revocationCheck.getIfAvailable();
+		return check != null && check.isRevoked(token);
+	}
 
 }
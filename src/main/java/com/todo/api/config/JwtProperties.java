@@ -0,0 +1,66 @@
+package com.todo.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "application.security.jwt")
+public class JwtProperties {
+
+	/**
+	 * Base64 encoded HMAC key of at least 256 bits, required. Every node of a cluster must use
+	 * the same value.
+	 */
+	private String secretKey;
+
+	/**
+	 * HS256 signs with secretKey. ES256 signs with rotating key pairs kept in the signing_key
+	 * table and published at /api/v1/auth/jwks; tokens without a kid are rejected.
+	 */
+	private SigningAlgorithm algorithm = SigningAlgorithm.HS256;
+
+	/**
+	 * How long each ES256 key signs. Must be longer than jwksCacheDuration, since the next key
+	 * is published one interval before it is used.
+	 */
+	private Duration keyRotationInterval = Duration.ofHours(24);
+
+	/**
+	 * max-age of the JWKS response.
+	 */
+	private Duration jwksCacheDuration = Duration.ofMinutes(5);
+
+	/**
+	 * Where JwtAuthenticationFilter gets the principal from: the user table on
+	 * every request, or the signed uid/role claims of the token.
+	 */
+	private PrincipalMode principalMode = PrincipalMode.DATABASE;
+
+	/**
+	 * Lifetime of access tokens. Clients renew them through /api/v1/auth/refresh.
+	 */
+	private Duration accessTokenExpiration = Duration.ofMinutes(15);
+
+	private Duration refreshTokenExpiration = Duration.ofDays(14);
+
+	/**
+	 * How often refresh tokens that expired unused are deleted.
+	 */
+	private Duration refreshTokenPurgeInterval = Duration.ofHours(1);
+
+	/**
+	 * Number of verified tokens kept so repeat requests skip signature checks; 0 disables it.
+	 */
+	private long tokenCacheSize = 10_000;
+
+	public enum PrincipalMode {
+		DATABASE, STATELESS
+	}
+
+	public enum SigningAlgorithm {
+		HS256, ES256
+	}
+}
@@ -1,72 +1,181 @@
 package com.todo.api.config;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.todo.api.model.AuthenticatedUser;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.DecodingException;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Service
 public class JwtService {
 	
-	private static final String SECRET_KEY="576D5A7134743777217A25432A462D4A614E645267556A586E3272357538782F";
-
-	public String extractUsername(String token) {
-		return extractClaim(token, Claims::getSubject);
-	}
+	private final JwtProperties properties;
+	private final Key signInKey;
+	private final SigningKeyRing keyRing;
+	private final JwtParser jwtParser;
+	private final Cache<ByteBuffer, VerifiedToken> verifiedTokens;
 	
-	private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-		final Claims claims =  extractAllClaims(token);
-		return claimsResolver.apply(claims);
+	public JwtService(JwtProperties properties, MeterRegistry meterRegistry, SigningKeyRing keyRing) {
+		this.properties = properties;
+		this.signInKey = hmacKey(properties.getSecretKey());
+		this.keyRing = keyRing;
+		this.jwtParser = Jwts
+				.parserBuilder()
+				.setSigningKeyResolver(new SigningKeyResolverAdapter() {
+					
+					@Override
+					public Key resolveSigningKey(JwsHeader header, Claims claims) {
+						return verificationKey(header);
+					}
+				})
+				.build();
+		this.verifiedTokens = Caffeine.newBuilder()
+				.maximumSize(properties.getTokenCacheSize())
+				.expireAfter(new UntilTokenExpiry())
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verifiedTokens");
 	}
-	
+
+	private static Key hmacKey(String secretKey) {
+		if(secretKey == null || secretKey.isBlank()) {
+			throw new IllegalStateException("application.security.jwt.secret-key is not set");
+		}
+		byte[] bytes;
+		try {
+			bytes = Decoders.BASE64.decode(secretKey);
+		} catch (DecodingException ex) {
+			throw new IllegalStateException("application.security.jwt.secret-key is not valid Base64", ex);
+		}
+		if(bytes.length < 32) {
+			throw new IllegalStateException("application.security.jwt.secret-key must be at least 256 bits");
+		}
+		return Keys.hmacShaKeyFor(bytes);
+	}
+
 	public String generateToken(UserDetails userDetails) {
 		return generateToken(new HashMap<>(), userDetails);
 	}
 	
 	public String generateToken( Map<String, Object> extraClaims, UserDetails userDetails) {
-		return Jwts
+		Map<String, Object> claims = new HashMap<>(extraClaims);
+		if(userDetails instanceof AuthenticatedUser user && user.getId() != null && user.getRole() != null) {
+			claims.put(VerifiedToken.USER_ID_CLAIM, user.getId());
+			claims.put(VerifiedToken.ROLE_CLAIM, user.getRole().name());
+		}
+		long now = System.currentTimeMillis();
+		JwtBuilder builder = Jwts
 				.builder()
-				.setClaims(extraClaims)
+				.setClaims(claims)
+				.setId(UUID.randomUUID().toString())
 				.setSubject(userDetails.getUsername())
-				.setIssuedAt(new Date(System.currentTimeMillis()))
-				.setExpiration(new Date(Long.MAX_VALUE))
-				.signWith(getSignInKey(), SignatureAlgorithm.HS256)
+				.setIssuedAt(new Date(now))
+				.setExpiration(new Date(now + properties.getAccessTokenExpiration().toMillis()));
+		SigningKeyRing.SigningKey signingKey = keyRing.current();
+		if(signingKey != null) {
+			return builder
+					.setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
+					.signWith(signingKey.keyPair().getPrivate(), SignatureAlgorithm.ES256)
+					.compact();
+		}
+		return builder
+				.signWith(signInKey, SignatureAlgorithm.HS256)
 				.compact();
 	}
 	
-	public boolean isTokenValid(String token, UserDetails userDetails) {
-		final String username = extractUsername(token);
-		return(username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+	public List<Map<String, Object>> publicKeys() {
+		return keyRing.publicJwks();
+	}
+	
+	private Key verificationKey(JwsHeader<?> header) {
+		String kid = header.getKeyId();
+		if(kid == null) {
+			// with ES256 the shared secret must not be able to mint tokens
+			if(properties.getAlgorithm() == JwtProperties.SigningAlgorithm.ES256) {
+				throw new UnsupportedJwtException("Token without a key id");
+			}
+			return signInKey;
+		}
+		Key key = keyRing.verificationKey(kid);
+		if(key == null) {
+			throw new UnsupportedJwtException("Unknown signing key " + kid);
+		}
+		return key;
 	}
-	private boolean isTokenExpired(String token) {
-		return extractExpiration(token).before(new Date());
+	
+	public VerifiedToken verify(String token) {
+		if(properties.getTokenCacheSize() <= 0) {
+			return new VerifiedToken(extractAllClaims(token));
+		}
+		// only tokens that passed verification are stored, keyed by a digest of the whole token
+		return verifiedTokens.get(digest(token), key -> new VerifiedToken(extractAllClaims(token)));
 	}
 	
-	private Date extractExpiration(String token) {
-		return extractClaim(token, Claims::getExpiration); 
+	private static ByteBuffer digest(String token) {
+		try {
+			return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+	
+	public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+		return(token.getSubject().equals(userDetails.getUsername()) && !token.isExpired());
 	}
 	
 	private Claims extractAllClaims(String token) {
-		return Jwts
-				.parserBuilder()
-				.setSigningKey(getSignInKey())
-				.build()
+		return jwtParser
 				.parseClaimsJws(token)
 				.getBody();
 	}
 	
-	private Key getSignInKey() {
-		byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-		return Keys.hmacShaKeyFor(keyBytes);
+	private static class UntilTokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+		
+		@Override
+		public long expireAfterCreate(ByteBuffer key, VerifiedToken token, long currentTime) {
+			Date expiration = token.getExpiration();
+			if(expiration == null) {
+				return 0;
+			}
+			return Math.max(0, TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis()));
+		}
+		
+		@Override
+		public long expireAfterUpdate(ByteBuffer key, VerifiedToken token, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+		
+		@Override
+		public long expireAfterRead(ByteBuffer key, VerifiedToken token, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
 	}
 }
@@ -0,0 +1,108 @@
+package com.todo.api.config;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todo.api.exception.LoginThrottledException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Token buckets per email address and per client address in front of the login endpoint,
+ * so throttled attempts never reach BCrypt.
+ */
+@Component
+public class LoginThrottle {
+
+	private final Limiter emailLimiter;
+	private final Limiter ipLimiter;
+	private final Counter emailRejections;
+	private final Counter ipRejections;
+
+	public LoginThrottle(LoginThrottleProperties properties, MeterRegistry meterRegistry) {
+		this.emailLimiter = new Limiter(properties.getEmailCapacity(), properties.getEmailRefill(), properties);
+		this.ipLimiter = new Limiter(properties.getIpCapacity(), properties.getIpRefill(), properties);
+		this.emailRejections = meterRegistry.counter("login.throttled", "key", "email");
+		this.ipRejections = meterRegistry.counter("login.throttled", "key", "ip");
+	}
+
+	public void check(String email, String clientAddress) {
+		long waitNanos = tryAcquire(email, clientAddress);
+		if(waitNanos > 0) {
+			throw new LoginThrottledException("Too many login attempts.",
+					Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+		}
+	}
+
+	/**
+	 * Takes one token from both buckets and returns 0, or returns the nanoseconds until the
+	 * rejecting bucket has a token again.
+	 */
+	public long tryAcquire(String email, String clientAddress) {
+		long now = System.nanoTime();
+		if(clientAddress != null) {
+			long waitNanos = ipLimiter.tryAcquire(clientAddress, now);
+			if(waitNanos > 0) {
+				ipRejections.increment();
+				return waitNanos;
+			}
+		}
+		if(email != null) {
+			long waitNanos = emailLimiter.tryAcquire(email.toLowerCase(Locale.ROOT), now);
+			if(waitNanos > 0) {
+				emailRejections.increment();
+				return waitNanos;
+			}
+		}
+		return 0;
+	}
+
+	private static final class Limiter {
+
+		private final Cache<String, Bucket> buckets;
+		private final long refillNanos;
+		private final long burstNanos;
+
+		Limiter(int capacity, Duration refill, LoginThrottleProperties properties) {
+			this.buckets = Caffeine.newBuilder()
+					.maximumSize(properties.getMaximumTrackedKeys())
+					.expireAfterAccess(properties.getIdleTimeout())
+					.build();
+			this.refillNanos = refill.toNanos();
+			this.burstNanos = (Math.max(capacity, 1) - 1) * refillNanos;
+		}
+
+		long tryAcquire(String key, long now) {
+			return buckets.get(key, k -> new Bucket()).tryAcquire(now, refillNanos, burstNanos);
+		}
+	}
+
+	/**
+	 * Token bucket kept as a single theoretical arrival time (GCRA), updated with CAS.
+	 */
+	private static final class Bucket {
+
+		private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+		long tryAcquire(long now, long refillNanos, long burstNanos) {
+			while(true) {
+				long arrival = theoreticalArrival.get();
+				long base = arrival == Long.MIN_VALUE || arrival - now < 0 ? now : arrival;
+				long waitNanos = base - burstNanos - now;
+				if(waitNanos > 0) {
+					return waitNanos;
+				}
+				if(theoreticalArrival.compareAndSet(arrival, base + refillNanos)) {
+					return 0;
+				}
+			}
+		}
+	}
+}
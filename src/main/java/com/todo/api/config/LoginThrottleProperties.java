@@ -0,0 +1,34 @@
+package com.todo.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "application.security.login-throttle")
+public class LoginThrottleProperties {
+
+	/**
+	 * Login attempts allowed in a burst per email address, refilled one per emailRefill.
+	 */
+	private int emailCapacity = 5;
+
+	private Duration emailRefill = Duration.ofMinutes(1);
+
+	/**
+	 * Login attempts allowed in a burst per client address, refilled one per ipRefill.
+	 */
+	private int ipCapacity = 50;
+
+	private Duration ipRefill = Duration.ofSeconds(1);
+
+	/**
+	 * Upper bound of buckets kept per key type; idle buckets are dropped after idleTimeout,
+	 * which should be at least capacity * refill.
+	 */
+	private long maximumTrackedKeys = 100_000;
+
+	private Duration idleTimeout = Duration.ofMinutes(10);
+}
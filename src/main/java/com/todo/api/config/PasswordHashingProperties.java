@@ -0,0 +1,43 @@
+package com.todo.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "application.security.password")
+public class PasswordHashingProperties {
+
+	/**
+	 * Threads dedicated to hashing and verifying passwords, 0 means one per available core.
+	 */
+	private int threads = 0;
+
+	/**
+	 * Requests allowed to wait for a hashing thread before new ones are rejected with 503.
+	 */
+	private int queueCapacity = 64;
+
+	/**
+	 * Value of the Retry-After header sent when the hashing queue is full.
+	 */
+	private Duration retryAfter = Duration.ofSeconds(1);
+
+	/**
+	 * BCrypt cost. 0 calibrates it at startup so one hash takes about targetDuration;
+	 * pin it when nodes of one cluster run on different hardware.
+	 */
+	private int strength = 0;
+
+	private Duration targetDuration = Duration.ofMillis(100);
+
+	private int minimumStrength = 10;
+
+	private int maximumStrength = 16;
+
+	public int resolveThreads() {
+		return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+	}
+}
@@ -0,0 +1,71 @@
+package com.todo.api.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Heartbeat-based lag check: the primary's replication_heartbeat row gets the current time,
+ * and each replica's lag is how old its copy of that row is. Works on any database that
+ * replicates the table, including the embedded ones used in tests.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+	private final ReplicaRoutingDataSource routingDataSource;
+	private final Duration maxLag;
+	private final JdbcTemplate primary;
+	private final Map<String, JdbcTemplate> replicas = new HashMap<>();
+	private final Map<String, AtomicLong> lagMillis = new HashMap<>();
+	private long lastBeat;
+
+	public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, Duration maxLag, MeterRegistry meterRegistry) {
+		this.routingDataSource = routingDataSource;
+		this.maxLag = maxLag;
+		this.primary = new JdbcTemplate(routingDataSource.getPrimary());
+		for(Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+			replicas.put(replica.getKey(), new JdbcTemplate(replica.getValue()));
+			AtomicLong lag = new AtomicLong(-1);
+			lagMillis.put(replica.getKey(), lag);
+			Gauge.builder("datasource.replica.lag", lag, AtomicLong::get)
+					.baseUnit("milliseconds")
+					.tag("replica", replica.getKey())
+					.register(meterRegistry);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${application.datasource.routing.lag-check-interval:PT1S}")
+	public synchronized void check() {
+		long now = System.currentTimeMillis();
+		try {
+			primary.update("update replication_heartbeat set beat = ? where id = 1", now);
+			lastBeat = now;
+		} catch (DataAccessException ex) {
+			log.warn("Could not write replication heartbeat", ex);
+		}
+		for(Map.Entry<String, JdbcTemplate> replica : replicas.entrySet()) {
+			String key = replica.getKey();
+			long lag;
+			try {
+				Long beat = replica.getValue().queryForObject("select beat from replication_heartbeat where id = 1", Long.class);
+				lag = beat != null && beat >= lastBeat ? 0 : System.currentTimeMillis() - (beat == null ? 0 : beat);
+			} catch (DataAccessException ex) {
+				log.warn("Could not read replication heartbeat from {}", key, ex);
+				lag = Long.MAX_VALUE;
+			}
+			lagMillis.get(key).set(lag == Long.MAX_VALUE ? -1 : lag);
+			routingDataSource.setHealthy(key, lag <= maxLag.toMillis());
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.todo.api.config;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "application.datasource.routing", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+	@Bean
+	public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+			ReplicaRoutingProperties properties) {
+		DataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		List<DataSource> replicas = properties.getReplicas().stream()
+				.map(replica -> DataSourceBuilder.create()
+						.type(HikariDataSource.class)
+						.driverClassName(dataSourceProperties.determineDriverClassName())
+						.url(replica.getUrl())
+						.username(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername())
+						.password(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword())
+						.build())
+				.collect(Collectors.toList());
+		return new ReplicaRoutingDataSource(primary, replicas, properties.getStickyWindow());
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+		return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+	}
+
+	@Bean
+	public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+			ReplicaRoutingProperties properties, MeterRegistry meterRegistry) {
+		return new ReplicaLagMonitor(replicaRoutingDataSource, properties.getMaxLag(), meterRegistry);
+	}
+}
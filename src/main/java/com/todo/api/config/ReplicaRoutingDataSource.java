@@ -0,0 +1,129 @@
+package com.todo.api.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Routes read-only transactions to a healthy replica and everything else to the primary.
+ * The lookup happens when the first statement needs a connection, so this must sit behind a
+ * LazyConnectionDataSourceProxy; otherwise the transaction's read-only flag is not set yet.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+	static final String PRIMARY = "primary";
+
+	private final DataSource primary;
+	private final Map<String, DataSource> replicas;
+	private final List<String> replicaKeys;
+	private final Map<String, Boolean> healthy = new ConcurrentHashMap<>();
+	private final AtomicInteger next = new AtomicInteger();
+	private final Cache<String, Boolean> recentWriters;
+
+	public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, Duration stickyWindow) {
+		this.primary = primary;
+		Map<String, DataSource> replicas = new HashMap<>();
+		List<String> replicaKeys = new ArrayList<>();
+		for(int i = 0; i < replicaDataSources.size(); i++) {
+			String key = "replica-" + i;
+			replicas.put(key, replicaDataSources.get(i));
+			replicaKeys.add(key);
+			// unknown lag: stay on the primary until the first check
+			healthy.put(key, Boolean.FALSE);
+		}
+		this.replicas = Collections.unmodifiableMap(replicas);
+		this.replicaKeys = Collections.unmodifiableList(replicaKeys);
+		this.recentWriters = Caffeine.newBuilder()
+				.expireAfterWrite(stickyWindow)
+				.maximumSize(100_000)
+				.build();
+		Map<Object, Object> targets = new HashMap<>(replicas);
+		targets.put(PRIMARY, primary);
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+	}
+
+	public DataSource getPrimary() {
+		return primary;
+	}
+
+	public Map<String, DataSource> getReplicas() {
+		return replicas;
+	}
+
+	public void setHealthy(String replica, boolean isHealthy) {
+		healthy.put(replica, isHealthy);
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		String principal = currentPrincipal();
+		if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			rememberWriter(principal);
+			return PRIMARY;
+		}
+		if(principal != null && recentWriters.getIfPresent(principal) != null) {
+			return PRIMARY;
+		}
+		int size = replicaKeys.size();
+		int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+		for(int i = 0; i < size; i++) {
+			String key = replicaKeys.get((start + i) % size);
+			if(healthy.get(key)) {
+				return key;
+			}
+		}
+		return PRIMARY;
+	}
+
+	private void rememberWriter(String principal) {
+		if(principal == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCommit() {
+				recentWriters.put(principal, Boolean.TRUE);
+			}
+		});
+	}
+
+	private static String currentPrincipal() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if(authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+			return null;
+		}
+		return authentication.getName();
+	}
+
+	public void close() throws Exception {
+		closeIfPossible(primary);
+		for(DataSource replica : replicas.values()) {
+			closeIfPossible(replica);
+		}
+	}
+
+	private static void closeIfPossible(DataSource dataSource) throws Exception {
+		if(dataSource instanceof AutoCloseable closeable) {
+			closeable.close();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.todo.api.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "application.datasource.routing")
+public class ReplicaRoutingProperties {
+
+	/**
+	 * Send read-only transactions to the replicas; spring.datasource.* stays the primary.
+	 */
+	private boolean enabled = false;
+
+	private List<Replica> replicas = new ArrayList<>();
+
+	/**
+	 * Replicas further behind than this are skipped. Keep it above lagCheckInterval,
+	 * the heartbeat granularity.
+	 */
+	private Duration maxLag = Duration.ofSeconds(2);
+
+	private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+	/**
+	 * How long a user's reads stay on the primary after one of their own writes commits.
+	 * Should be at least maxLag for read-your-writes to hold.
+	 */
+	private Duration stickyWindow = Duration.ofSeconds(5);
+
+	@Data
+	public static class Replica {
+
+		private String url;
+
+		/**
+		 * Default to spring.datasource.username and spring.datasource.password.
+		 */
+		private String username;
+		private String password;
+	}
+}
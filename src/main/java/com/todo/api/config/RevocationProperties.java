@@ -0,0 +1,30 @@
+package com.todo.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "application.security.revocation")
+public class RevocationProperties {
+
+	/**
+	 * Local file the revocation list is written to and restored from on startup.
+	 * Revocations are per node; empty disables persistence.
+	 */
+	private String snapshotFile = "revocations.snapshot";
+
+	/**
+	 * Sizing of the Bloom filter in front of the exact revocation set.
+	 */
+	private int expectedRevocations = 100_000;
+
+	private double falsePositiveRate = 0.01;
+
+	/**
+	 * How often expired entries are pruned and the snapshot is written.
+	 */
+	private Duration flushInterval = Duration.ofSeconds(10);
+}
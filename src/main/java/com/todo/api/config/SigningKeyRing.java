@@ -0,0 +1,231 @@
+package com.todo.api.config;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.todo.api.config.JwtProperties.SigningAlgorithm;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * ES256 signing keys shared by every node through the signing_key table. Time is cut into
+ * slots of keyRotationInterval; the key of the current slot signs, and the key of the next
+ * slot is already published, so verifiers that cache the JWKS know it before the first token
+ * signed with it. Keys stay published until every token they signed has expired. Private
+ * keys are stored encrypted with the shared secret key.
+ */
+@Component
+public class SigningKeyRing {
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+	private static final int IV_LENGTH = 12;
+
+	private final JwtProperties properties;
+	private final JdbcTemplate jdbcTemplate;
+	private final SecretKey wrappingKey;
+	private volatile Slots loaded;
+
+	public SigningKeyRing(JwtProperties properties, JdbcTemplate jdbcTemplate) {
+		this.properties = properties;
+		this.jdbcTemplate = jdbcTemplate;
+		if(properties.getAlgorithm() != SigningAlgorithm.ES256) {
+			this.wrappingKey = null;
+			return;
+		}
+		if(properties.getKeyRotationInterval().compareTo(properties.getJwksCacheDuration()) <= 0) {
+			throw new IllegalStateException("application.security.jwt.key-rotation-interval must be longer than jwks-cache-duration");
+		}
+		this.wrappingKey = wrappingKey(properties.getSecretKey());
+	}
+
+	/**
+	 * The key new tokens are signed with, or null when tokens are signed with the shared HMAC secret.
+	 */
+	public SigningKey current() {
+		return current(Instant.now());
+	}
+
+	public PublicKey verificationKey(String kid) {
+		return verificationKey(kid, Instant.now());
+	}
+
+	public List<Map<String, Object>> publicJwks() {
+		return publicJwks(Instant.now());
+	}
+
+	SigningKey current(Instant now) {
+		Slots slots = slots(now);
+		return slots == null ? null : slots.signing();
+	}
+
+	PublicKey verificationKey(String kid, Instant now) {
+		Slots slots = slots(now);
+		SigningKey key = slots == null ? null : slots.byKid().get(kid);
+		return key == null ? null : key.keyPair().getPublic();
+	}
+
+	List<Map<String, Object>> publicJwks(Instant now) {
+		Slots slots = slots(now);
+		if(slots == null) {
+			return List.of();
+		}
+		List<Map<String, Object>> jwks = new ArrayList<>();
+		for(SigningKey key : slots.byKid().values()) {
+			ECPublicKey publicKey = (ECPublicKey) key.keyPair().getPublic();
+			Map<String, Object> jwk = new LinkedHashMap<>();
+			jwk.put("kty", "EC");
+			jwk.put("crv", "P-256");
+			jwk.put("use", "sig");
+			jwk.put("alg", "ES256");
+			jwk.put("kid", key.kid());
+			jwk.put("x", coordinate(publicKey.getW().getAffineX()));
+			jwk.put("y", coordinate(publicKey.getW().getAffineY()));
+			jwks.add(jwk);
+		}
+		return jwks;
+	}
+
+	// the database is only read when the clock enters a new slot
+	private Slots slots(Instant now) {
+		if(wrappingKey == null) {
+			return null;
+		}
+		long slot = Math.floorDiv(now.toEpochMilli(), properties.getKeyRotationInterval().toMillis());
+		Slots slots = loaded;
+		if(slots == null || slots.slot() != slot) {
+			slots = load(slot);
+		}
+		return slots;
+	}
+
+	private synchronized Slots load(long slot) {
+		Slots slots = loaded;
+		if(slots != null && slots.slot() == slot) {
+			return slots;
+		}
+		long interval = properties.getKeyRotationInterval().toMillis();
+		// the oldest slot whose tokens can still be unexpired
+		long oldest = Math.floorDiv(slot * interval - properties.getAccessTokenExpiration().toMillis(), interval);
+		jdbcTemplate.update("delete from signing_key where slot < ?", oldest);
+		Map<Long, SigningKey> keys = select(oldest, slot + 1);
+		if(!keys.containsKey(slot) || !keys.containsKey(slot + 1)) {
+			insertIfAbsent(keys, slot);
+			insertIfAbsent(keys, slot + 1);
+			keys = select(oldest, slot + 1);
+		}
+		Map<String, SigningKey> byKid = new LinkedHashMap<>();
+		for(SigningKey key : keys.values()) {
+			byKid.put(key.kid(), key);
+		}
+		slots = new Slots(slot, keys.get(slot), Collections.unmodifiableMap(byKid));
+		loaded = slots;
+		return slots;
+	}
+
+	private Map<Long, SigningKey> select(long from, long to) {
+		Map<Long, SigningKey> keys = new LinkedHashMap<>();
+		jdbcTemplate.query("select slot, kid, public_key, private_key from signing_key where slot between ? and ? order by slot",
+				resultSet -> {
+					long slot = resultSet.getLong("slot");
+					keys.put(slot, new SigningKey(slot, resultSet.getString("kid"),
+							decode(resultSet.getBytes("public_key"), resultSet.getBytes("private_key"))));
+				}, from, to);
+		return keys;
+	}
+
+	// nodes racing for the same slot collide on the primary key; the loser reads the winner's key
+	private void insertIfAbsent(Map<Long, SigningKey> keys, long slot) {
+		if(keys.containsKey(slot)) {
+			return;
+		}
+		KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+		try {
+			jdbcTemplate.update("insert into signing_key (slot, kid, public_key, private_key) values (?, ?, ?, ?)",
+					slot, UUID.randomUUID().toString(), keyPair.getPublic().getEncoded(), encrypt(keyPair.getPrivate().getEncoded()));
+		} catch (DuplicateKeyException ex) {
+			// another node got there first
+		}
+	}
+
+	private byte[] encrypt(byte[] privateKey) {
+		try {
+			byte[] iv = new byte[IV_LENGTH];
+			RANDOM.nextBytes(iv);
+			Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+			cipher.init(Cipher.ENCRYPT_MODE, wrappingKey, new GCMParameterSpec(128, iv));
+			byte[] encrypted = cipher.doFinal(privateKey);
+			return ByteBuffer.allocate(IV_LENGTH + encrypted.length).put(iv).put(encrypted).array();
+		} catch (GeneralSecurityException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private KeyPair decode(byte[] publicKey, byte[] encryptedPrivateKey) {
+		try {
+			Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+			cipher.init(Cipher.DECRYPT_MODE, wrappingKey, new GCMParameterSpec(128, encryptedPrivateKey, 0, IV_LENGTH));
+			byte[] privateKey = cipher.doFinal(encryptedPrivateKey, IV_LENGTH, encryptedPrivateKey.length - IV_LENGTH);
+			KeyFactory keyFactory = KeyFactory.getInstance("EC");
+			return new KeyPair(keyFactory.generatePublic(new X509EncodedKeySpec(publicKey)),
+					keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateKey)));
+		} catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("Could not decrypt signing key; is secret-key the same on every node?", ex);
+		}
+	}
+
+	private static SecretKey wrappingKey(String secretKey) {
+		if(secretKey == null || secretKey.isBlank()) {
+			throw new IllegalStateException("application.security.jwt.secret-key is not set");
+		}
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(Decoders.BASE64.decode(secretKey), "HmacSHA256"));
+			return new SecretKeySpec(mac.doFinal("signing-key-encryption".getBytes(StandardCharsets.US_ASCII)), "AES");
+		} catch (GeneralSecurityException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static String coordinate(BigInteger value) {
+		byte[] bytes = value.toByteArray();
+		byte[] padded = new byte[32];
+		int length = Math.min(bytes.length, 32);
+		System.arraycopy(bytes, bytes.length - length, padded, 32 - length, length);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(padded);
+	}
+
+	public record SigningKey(long slot, String kid, KeyPair keyPair) {
+	}
+
+	private record Slots(long slot, SigningKey signing, Map<String, SigningKey> byKid) {
+	}
+}
@@ -0,0 +1,9 @@
+package com.todo.api.config;
+
+/**
+ * Optional hook consulted by JwtAuthenticationFilter after a token has been verified.
+ */
+public interface TokenRevocationCheck {
+
+	boolean isRevoked(VerifiedToken token);
+}
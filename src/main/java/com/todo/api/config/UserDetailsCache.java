@@ -0,0 +1,55 @@
+package com.todo.api.config;
+
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todo.api.model.AuthenticatedUser;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+@Component
+public class UserDetailsCache {
+
+	private final Cache<String, AuthenticatedUser> cache;
+
+	public UserDetailsCache(CacheProperties properties, MeterRegistry meterRegistry) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(properties.getUserDetails().getMaximumSize())
+				.expireAfterWrite(properties.getUserDetails().getTimeToLive())
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+	}
+
+	public AuthenticatedUser get(String email, Function<String, AuthenticatedUser> loader) {
+		return cache.get(email, loader);
+	}
+
+	public void invalidate(String email) {
+		invalidate(() -> cache.invalidate(email));
+	}
+
+	/** For callers that only know the id; scans the cache instead of querying for the email. */
+	public void invalidateUser(Long userId) {
+		invalidate(() -> cache.asMap().values().removeIf(user -> userId.equals(user.getId())));
+	}
+
+	private void invalidate(Runnable eviction) {
+		eviction.run();
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+				@Override
+				public void afterCompletion(int status) {
+					eviction.run();
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.todo.api.config;
+
+import java.util.Date;
+
+import com.todo.api.model.Role;
+
+import io.jsonwebtoken.Claims;
+
+public class VerifiedToken {
+
+	static final String USER_ID_CLAIM = "uid";
+	static final String ROLE_CLAIM = "role";
+
+	private final Claims claims;
+
+	VerifiedToken(Claims claims) {
+		this.claims = claims;
+	}
+
+	public String getId() {
+		return claims.getId();
+	}
+
+	public String getSubject() {
+		return claims.getSubject();
+	}
+
+	public Date getExpiration() {
+		return claims.getExpiration();
+	}
+
+	public Date getIssuedAt() {
+		return claims.getIssuedAt();
+	}
+
+	public Long getUserId() {
+		return claims.get(USER_ID_CLAIM, Long.class);
+	}
+
+	public Role getRole() {
+		String role = claims.get(ROLE_CLAIM, String.class);
+		return role == null ? null : Role.valueOf(role);
+	}
+
+	public boolean isExpired() {
+		Date expiration = getExpiration();
+		return expiration != null && expiration.before(new Date());
+	}
+}
@@ -1,16 +1,26 @@
 package com.todo.api.controller;
 
+import java.util.Map;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.todo.api.config.JwtProperties;
+import com.todo.api.config.LoginThrottle;
 import com.todo.api.request.AuthenticationRequest;
+import com.todo.api.request.RefreshTokenRequest;
 import com.todo.api.request.RegisterRequest;
 import com.todo.api.response.AuthenticationResponse;
 import com.todo.api.service.AuthenticationService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -20,6 +30,8 @@ import lombok.RequiredArgsConstructor;
 public class AuthenticationController {
 	
 	private final AuthenticationService service;
+	private final LoginThrottle loginThrottle;
+	private final JwtProperties jwtProperties;
 	
 		
 	@PostMapping("/register")
@@ -28,8 +40,30 @@ public class AuthenticationController {
 	}
 	
 	@PostMapping("/authenticate")
-	public ResponseEntity<AuthenticationResponse> authenticate(@Valid @RequestBody AuthenticationRequest request){
+	public ResponseEntity<AuthenticationResponse> authenticate(@Valid @RequestBody AuthenticationRequest request,
+			HttpServletRequest httpRequest){
+		loginThrottle.check(request.getEmail(), httpRequest.getRemoteAddr());
 		return ResponseEntity.ok(service.authenticate(request));
 	}
 	
+	@GetMapping("/jwks")
+	public ResponseEntity<Map<String, Object>> jwks(){
+		return ResponseEntity.ok()
+				.cacheControl(CacheControl.maxAge(jwtProperties.getJwksCacheDuration()).cachePublic())
+				.body(service.jwks());
+	}
+	
+	@PostMapping("/logout")
+	public ResponseEntity<Void> logout(@RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+			@RequestBody(required = false) RefreshTokenRequest request){
+		String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+		service.logout(accessToken, request);
+		return ResponseEntity.noContent().build();
+	}
+	
+	@PostMapping("/refresh")
+	public ResponseEntity<AuthenticationResponse> refresh(@Valid @RequestBody RefreshTokenRequest request){
+		return ResponseEntity.ok(service.refresh(request));
+	}
+	
 }
@@ -0,0 +1,47 @@
+package com.todo.api.controller;
+
+import org.springframework.http.HttpHeaders;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+final class ETags {
+
+	static final String GZIP_SUFFIX = "-gzip";
+
+	private ETags() {
+	}
+
+	/** Unquoted tag of the todo lists at this list version. */
+	static String listTag(long version) {
+		return "todos-" + version;
+	}
+
+	static String quote(String tag) {
+		return "\"" + tag + "\"";
+	}
+
+	/**
+	 * Returns the quoted tag from If-None-Match that names this version, or null. The gzip and
+	 * identity encodings carry different strong tags, and either one counts as a match. "*"
+	 * matches whatever version is current, so only pass a tag read for a resource that exists.
+	 */
+	static String matchingTag(HttpServletRequest request, String tag) {
+		String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+		if(ifNoneMatch == null) {
+			return null;
+		}
+		for(String candidate : ifNoneMatch.split(",")) {
+			String value = candidate.trim();
+			if(value.equals("*")) {
+				return quote(tag);
+			}
+			if(value.startsWith("W/")) {
+				value = value.substring(2);
+			}
+			if(value.equals(quote(tag)) || value.equals(quote(tag + GZIP_SUFFIX))) {
+				return value;
+			}
+		}
+		return null;
+	}
+}
@@ -1,7 +1,13 @@
 package com.todo.api.controller;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,13 +16,24 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.todo.api.request.TodoBatchRequest;
+import com.todo.api.request.TodoBulkUpdateRequest;
+import com.todo.api.request.TodoIdsRequest;
 import com.todo.api.request.TodoRequest;
 import com.todo.api.request.TodoUpdateRequest;
+import com.todo.api.response.EncodedTodoList;
+import com.todo.api.response.TodoBulkResponse;
+import com.todo.api.response.TodoPageResponse;
 import com.todo.api.response.TodoResponse;
 import com.todo.api.service.TodoService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -25,11 +42,34 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class TodoController {
 	
+	private static final String PRIVATE_NO_CACHE = CacheControl.noCache().cachePrivate().getHeaderValue();
+	
 	private final TodoService todoService;
 	
+	// the hot polling endpoints answer If-None-Match from the user's list version alone and
+	// otherwise write pre-serialized JSON instead of going through Jackson. They stop at
+	// TodoService.LIST_LIMIT todos; a cut list says so with a Link rel="next" to the page endpoint
 	@GetMapping("/{userId}")
-	public ResponseEntity<List<TodoResponse>>  getAllTodos(@PathVariable Long userId){
-		return ResponseEntity.ok(todoService.getAllTodos(userId));
+	public void getAllTodos(@PathVariable Long userId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+		if(notModified(todoService.getTodoListVersion(userId), request, response)) {
+			return;
+		}
+		write(todoService.getAllTodosEncoded(userId), userId, null, request, response);
+	}
+	
+	@GetMapping("/{userId}/page")
+	public ResponseEntity<TodoPageResponse> getTodoPage(@PathVariable Long userId,
+			@RequestParam(required = false) Boolean active,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer limit, WebRequest webRequest){
+		String etag = ETags.quote(ETags.listTag(todoService.getTodoListVersion(userId)));
+		if(webRequest.checkNotModified(etag)) {
+			return null;
+		}
+		return ResponseEntity.ok()
+				.eTag(etag)
+				.cacheControl(CacheControl.noCache().cachePrivate())
+				.body(todoService.getTodoPage(userId, active, cursor, limit));
 	}
 	
 	@PostMapping 
@@ -37,6 +77,11 @@ public class TodoController {
 		return ResponseEntity.ok(todoService.createTodo(todoRequest));
 	}
 
+	@PostMapping("/batch")
+	public ResponseEntity<List<TodoResponse>> createTodos(@Valid @RequestBody TodoBatchRequest todoBatchRequest) {
+		return ResponseEntity.ok(todoService.createTodos(todoBatchRequest));
+	}
+
 	@DeleteMapping("/delete/{todoId}")
 	public ResponseEntity<Void> deleteTodo(@PathVariable Long todoId){
 		todoService.deleteTodo(todoId);
@@ -48,8 +93,105 @@ public class TodoController {
 		return ResponseEntity.ok(todoService.updateTodo(todoUpdateRequest));
 	}
 	
+	@PutMapping("/{userId}/active")
+	public ResponseEntity<TodoBulkResponse> updateActive(@PathVariable long userId, @Valid @RequestBody TodoBulkUpdateRequest request){
+		return ResponseEntity.ok(todoService.updateActive(userId, request));
+	}
+	
+	@PutMapping("/{userId}/done")
+	public ResponseEntity<TodoBulkResponse> markAllDone(@PathVariable long userId){
+		return ResponseEntity.ok(todoService.markAllDone(userId));
+	}
+	
+	@PostMapping("/{userId}/delete")
+	public ResponseEntity<TodoBulkResponse> deleteTodos(@PathVariable long userId, @Valid @RequestBody TodoIdsRequest request){
+		return ResponseEntity.ok(todoService.deleteTodos(userId, request));
+	}
+	
+	@DeleteMapping("/{userId}/completed")
+	public ResponseEntity<TodoBulkResponse> deleteCompleted(@PathVariable long userId){
+		return ResponseEntity.ok(todoService.deleteCompleted(userId));
+	}
+	
 	@GetMapping("/active/{userId}/{active}")
-	public ResponseEntity<List<TodoResponse>> getTodosByActive(@PathVariable boolean active, @PathVariable Long userId){
-		return ResponseEntity.ok(todoService.findTodosByActive(active,userId));
+	public void getTodosByActive(@PathVariable boolean active, @PathVariable Long userId,
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
+		if(notModified(todoService.getTodoListVersion(userId), request, response)) {
+			return;
+		}
+		write(todoService.findTodosByActiveEncoded(active, userId), userId, active, request, response);
+	}
+	
+	private static boolean notModified(long version, HttpServletRequest request, HttpServletResponse response) {
+		String matching = ETags.matchingTag(request, ETags.listTag(version));
+		if(matching == null) {
+			return false;
+		}
+		response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+		response.setHeader(HttpHeaders.ETAG, matching);
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		response.setHeader(HttpHeaders.CACHE_CONTROL, PRIVATE_NO_CACHE);
+		return true;
+	}
+	
+	private static void write(EncodedTodoList todos, Long userId, Boolean active,
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
+		String tag = ETags.listTag(todos.getVersion());
+		boolean gzip = todos.hasGzip() && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		response.setHeader(HttpHeaders.CACHE_CONTROL, PRIVATE_NO_CACHE);
+		// tagged with the version the rows were read at, never one read in another transaction
+		response.setHeader(HttpHeaders.ETAG, ETags.quote(gzip ? tag + ETags.GZIP_SUFFIX : tag));
+		if(gzip) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		if(todos.getNext() != null) {
+			String next = ServletUriComponentsBuilder.fromContextPath(request)
+					.path("/api/v1/todo/{userId}/page")
+					.queryParam("cursor", todos.getNext())
+					.queryParamIfPresent("active", Optional.ofNullable(active))
+					.buildAndExpand(userId)
+					.toUriString();
+			response.setHeader(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+		}
+		response.setContentLength(todos.length(gzip));
+		todos.writeTo(response.getOutputStream(), gzip);
+	}
+	
+	// an explicit gzip entry wins over "*"; a q-value of 0 means the client refuses the coding
+	static boolean acceptsGzip(String acceptEncoding) {
+		if(acceptEncoding == null) {
+			return false;
+		}
+		Double gzip = null;
+		Double any = null;
+		for(String entry : acceptEncoding.split(",")) {
+			String[] parts = entry.split(";");
+			String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+			double q = quality(parts);
+			if(coding.equals("gzip") || coding.equals("x-gzip")) {
+				gzip = q;
+			} else if(coding.equals("*")) {
+				any = q;
+			}
+		}
+		Double q = gzip != null ? gzip : any;
+		return q != null && q > 0;
+	}
+	
+	private static double quality(String[] parts) {
+		for(int i = 1; i < parts.length; i++) {
+			String parameter = parts[i].trim();
+			if(parameter.length() > 1 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q') && parameter.charAt(1) == '=') {
+				try {
+					return Double.parseDouble(parameter.substring(2).trim());
+				} catch (NumberFormatException ex) {
+					// a malformed weight is treated as a refusal
+					return 0;
+				}
+			}
+		}
+		return 1;
 	}
 }
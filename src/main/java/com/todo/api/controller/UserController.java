@@ -1,7 +1,12 @@
 package com.todo.api.controller;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,6 +16,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.todo.api.request.RegisterRequest;
 import com.todo.api.request.UserUpdateRequest;
@@ -27,14 +33,29 @@ public class UserController {
 
 	private final UserService userService;
 	
+	// tags come from the row versions, so a 304 still reads the rows but skips serialization
 	@GetMapping
-	public ResponseEntity<List<UserResponse>> getAllUsers(){
-		return ResponseEntity.ok(userService.getAllUsers());
+	public ResponseEntity<List<UserResponse>> getAllUsers(WebRequest webRequest){
+		List<UserResponse> users = userService.getAllUsers();
+		MessageDigest digest = sha256();
+		for(UserResponse user : users) {
+			digest.update((user.getId() + ":" + user.getVersion() + ";").getBytes(StandardCharsets.US_ASCII));
+		}
+		String etag = ETags.quote("users-" + HexFormat.of().formatHex(digest.digest(), 0, 16));
+		if(webRequest.checkNotModified(etag)) {
+			return null;
+		}
+		return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(users);
 	}
 	
 	@GetMapping("/{email}")
-	public ResponseEntity<UserResponse> findUserByEmail(@PathVariable String email){
-		return ResponseEntity.ok(userService.findUserByEmail(email));
+	public ResponseEntity<UserResponse> findUserByEmail(@PathVariable String email, WebRequest webRequest){
+		UserResponse user = userService.findUserByEmail(email);
+		String etag = ETags.quote("user-" + user.getId() + "-" + user.getVersion());
+		if(webRequest.checkNotModified(etag)) {
+			return null;
+		}
+		return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(user);
 	}
 	
 	@PostMapping
@@ -51,4 +72,12 @@ public class UserController {
 	public ResponseEntity<UserResponse> updateUser(@Valid @RequestBody UserUpdateRequest updateRequest){
 		return ResponseEntity.ok(userService.updateUser(updateRequest));
 	}
+	
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
 }
\ No newline at end of file
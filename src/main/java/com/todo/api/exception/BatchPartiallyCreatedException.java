@@ -0,0 +1,27 @@
+package com.todo.api.exception;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import com.todo.api.response.TodoResponse;
+
+/**
+ * A batch failed after some of its chunks were committed. The created todos are the first
+ * entries of the request, in order, so a retry should only send the rest.
+ */
+@ResponseStatus(value = HttpStatus.INTERNAL_SERVER_ERROR)
+public class BatchPartiallyCreatedException extends RuntimeException {
+
+	private final List<TodoResponse> created;
+
+	public BatchPartiallyCreatedException(String message, List<TodoResponse> created, Throwable cause) {
+		super(message, cause);
+		this.created = created;
+	}
+
+	public List<TodoResponse> getCreated() {
+		return created;
+	}
+}
@@ -3,8 +3,10 @@ package com.todo.api.exception;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -41,11 +43,48 @@ public class GeneralExceptionAdvisor  {
         return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
     }
     
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<?> invalidCursorExceptionHandler(InvalidCursorException exception) {
+    	return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+    
+    @ExceptionHandler(BatchPartiallyCreatedException.class)
+    public ResponseEntity<?> batchPartiallyCreatedExceptionHandler(BatchPartiallyCreatedException exception) {
+    	Map<String, Object> body = new HashMap<>();
+    	body.put("message", exception.getMessage());
+    	body.put("created", exception.getCreated());
+    	return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+    
     @ExceptionHandler(CustomBadCredentialsException.class)
     public ResponseEntity<?> BadCredentialsExceptionHandler(CustomBadCredentialsException exception) {
     	return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
     }
     
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<?> invalidRefreshTokenExceptionHandler(InvalidRefreshTokenException exception) {
+    	return new ResponseEntity<>(exception.getMessage(), HttpStatus.UNAUTHORIZED);
+    }
+    
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<?> optimisticLockingFailureExceptionHandler(ObjectOptimisticLockingFailureException exception) {
+    	return new ResponseEntity<>("The resource was modified concurrently, please retry.", HttpStatus.CONFLICT);
+    }
+    
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<?> loginThrottledExceptionHandler(LoginThrottledException exception) {
+    	return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+    			.header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+    			.body(exception.getMessage());
+    }
+    
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<?> passwordHashingUnavailableExceptionHandler(PasswordHashingUnavailableException exception) {
+    	return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+    			.header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+    			.body(exception.getMessage());
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> generalExceptionHandler(Exception exception) {
         return new ResponseEntity<>(exception.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -0,0 +1,12 @@
+package com.todo.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+	public InvalidCursorException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,12 @@
+package com.todo.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.UNAUTHORIZED)
+public class InvalidRefreshTokenException extends RuntimeException {
+
+	public InvalidRefreshTokenException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,66 @@
+package com.todo.api.model;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Immutable principal kept in the SecurityContext instead of the User entity.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString(exclude = "password")
+public final class AuthenticatedUser implements UserDetails {
+
+	private final Long id;
+	private final String email;
+	private final String password;
+	private final Role role;
+
+	public AuthenticatedUser(Long id, String email, String password, Role role) {
+		this.id = id;
+		this.email = email;
+		this.password = password;
+		this.role = role;
+	}
+
+	public static AuthenticatedUser from(User user) {
+		return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), user.getRole());
+	}
+
+	@Override
+	public Collection<? extends GrantedAuthority> getAuthorities() {
+		return role == null ? List.of() : role.getAuthorities();
+	}
+
+	@Override
+	public String getUsername() {
+		return email;
+	}
+
+	@Override
+	public boolean isAccountNonExpired() {
+		return true;
+	}
+
+	@Override
+	public boolean isAccountNonLocked() {
+		return true;
+	}
+
+	@Override
+	public boolean isCredentialsNonExpired() {
+		return true;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+}
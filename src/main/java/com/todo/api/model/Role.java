@@ -1,6 +1,17 @@
 package com.todo.api.model;
 
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
 public enum Role {
-	USER,ADMIN
+	USER,ADMIN;
+
+	private final List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(name()));
+
+	public List<GrantedAuthority> getAuthorities() {
+		return authorities;
+	}
 }
 
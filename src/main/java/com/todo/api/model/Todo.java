@@ -5,12 +5,17 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+		@Index(name = "idx_todo_user_id", columnList = "user_id, id"),
+		@Index(name = "idx_todo_user_active_id", columnList = "user_id, active, id")
+})
 public class Todo {
 
 	@Id
@@ -20,7 +25,8 @@ public class Todo {
     private String task;
     private boolean active;
 
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 }
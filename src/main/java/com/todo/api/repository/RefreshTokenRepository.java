@@ -0,0 +1,31 @@
+package com.todo.api.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.todo.api.model.RefreshToken;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+	
+	@Query("select r from RefreshToken r join fetch r.user where r.tokenHash = :tokenHash")
+	Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
+	
+	@Modifying
+	@Query("delete from RefreshToken r where r.tokenHash = :tokenHash")
+	int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+	
+	@Modifying
+	@Query("delete from RefreshToken r where r.user.id = :userId")
+	int deleteByUserId(@Param("userId") Long userId);
+	
+	@Transactional
+	@Modifying
+	@Query("delete from RefreshToken r where r.expiresAt < :now")
+	int deleteExpired(@Param("now") Instant now);
+}
@@ -2,11 +2,41 @@ package com.todo.api.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.todo.api.model.Todo;
+import com.todo.api.response.TodoResponse;
 
-public interface TodoRepository extends JpaRepository<Todo, Long> {
-	List<Todo> findByUserId(Long userId);
-	List<Todo> findByActiveAndUserId(boolean active, Long userId);
+public interface TodoRepository extends JpaRepository<Todo, Long>, TodoRepositoryCustom {
+	
+	// read paths select straight into TodoResponse: no entities, no user join, nothing to dirty-check
+	@Query("select new com.todo.api.response.TodoResponse(t.id, t.task, t.active, t.user.id) "
+			+ "from Todo t where t.user.id = :userId and t.id > :afterId order by t.id")
+	List<TodoResponse> findResponsesByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+	
+	@Query("select new com.todo.api.response.TodoResponse(t.id, t.task, t.active, t.user.id) "
+			+ "from Todo t where t.user.id = :userId and t.active = :active and t.id > :afterId order by t.id")
+	List<TodoResponse> findResponsesByActiveAndUserId(@Param("active") boolean active, @Param("userId") Long userId,
+			@Param("afterId") Long afterId, Pageable pageable);
+	
+	// single DELETE without loading the entity first; the row count tells whether it existed
+	@Transactional
+	@Modifying
+	@Query("delete from Todo t where t.id = :id")
+	int deleteTodoById(@Param("id") Long id);
+	
+	@Transactional
+	@Modifying
+	@Query("update Todo t set t.active = false where t.user.id = :userId and t.active = true")
+	int markAllDone(@Param("userId") long userId);
+	
+	@Transactional
+	@Modifying
+	@Query("delete from Todo t where t.user.id = :userId and t.active = false")
+	int deleteCompleted(@Param("userId") long userId);
 }
@@ -0,0 +1,30 @@
+package com.todo.api.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.todo.api.model.Todo;
+
+public interface TodoRepositoryCustom {
+
+	/**
+	 * Inserts the todos as one JDBC batch and assigns the generated ids. Only the id of
+	 * each todo's user is read, so a detached or id-only User is enough.
+	 */
+	void insertAll(List<Todo> todos);
+
+	/** Sets active on those of the ids that belong to the user and returns the number of rows changed. */
+	int updateActive(long userId, long[] ids, boolean active);
+
+	/** Deletes those of the ids that belong to the user and returns the number of rows deleted. */
+	int deleteByIds(long userId, long[] ids);
+
+	/** The version of the user's todo lists, or empty when the user does not exist. */
+	Optional<Long> findListVersion(long userId);
+
+	/** Bumps the version of the user's todo lists; returns 0 when the user does not exist. */
+	int incrementListVersion(long userId);
+
+	/** Bumps the list version of the todo's owner; returns 0 when the todo does not exist. */
+	int incrementListVersionOfTodo(long todoId);
+}
@@ -0,0 +1,140 @@
+package com.todo.api.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.query.NativeQuery;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.todo.api.model.Todo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+// IDENTITY ids stop Hibernate from batching inserts, so bulk creation goes through JDBC on the
+// transaction's connection; with rewriteBatchedStatements MySQL receives multi-row INSERTs
+@RequiredArgsConstructor
+public class TodoRepositoryImpl implements TodoRepositoryCustom {
+
+	private static final String INSERT_SQL = "insert into todo (task, active, user_id) values (?, ?, ?)";
+	// todo_list_version is not mapped on User; naming a space of its own keeps these updates
+	// from invalidating the User region of the second-level cache
+	private static final String LIST_VERSION_SPACE = "todo_list_version";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManagerFactory entityManagerFactory;
+	private final EntityManager entityManager;
+
+	@Override
+	public void insertAll(List<Todo> todos) {
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			try(PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+				for(Todo todo : todos) {
+					statement.setString(1, todo.getTask());
+					statement.setBoolean(2, todo.isActive());
+					statement.setLong(3, todo.getUser().getId());
+					statement.addBatch();
+				}
+				statement.executeBatch();
+				try(ResultSet keys = statement.getGeneratedKeys()) {
+					for(int i = 0; keys.next(); i++) {
+						todos.get(i).setId(keys.getLong(1));
+					}
+				}
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public int updateActive(long userId, long[] ids, boolean active) {
+		if(ids.length == 0) {
+			return 0;
+		}
+		int updated = jdbcTemplate.update("update todo set active = ? where user_id = ? and id in (" + placeholders(ids.length) + ")",
+				statement -> {
+					statement.setBoolean(1, active);
+					statement.setLong(2, userId);
+					for(int i = 0; i < ids.length; i++) {
+						statement.setLong(i + 3, ids[i]);
+					}
+				});
+		evictFromSecondLevelCache(ids);
+		return updated;
+	}
+
+	@Override
+	public int deleteByIds(long userId, long[] ids) {
+		if(ids.length == 0) {
+			return 0;
+		}
+		int deleted = jdbcTemplate.update("delete from todo where user_id = ? and id in (" + placeholders(ids.length) + ")",
+				statement -> {
+					statement.setLong(1, userId);
+					for(int i = 0; i < ids.length; i++) {
+						statement.setLong(i + 2, ids[i]);
+					}
+				});
+		evictFromSecondLevelCache(ids);
+		return deleted;
+	}
+
+	@Override
+	public Optional<Long> findListVersion(long userId) {
+		List<?> versions = listVersionQuery("select todo_list_version from _user where id = ?1")
+				.setParameter(1, userId)
+				.getResultList();
+		return versions.stream().findFirst().map(version -> ((Number) version).longValue());
+	}
+
+	@Override
+	public int incrementListVersion(long userId) {
+		return listVersionQuery("update _user set todo_list_version = todo_list_version + 1 where id = ?1")
+				.setParameter(1, userId)
+				.executeUpdate();
+	}
+
+	@Override
+	public int incrementListVersionOfTodo(long todoId) {
+		return listVersionQuery("update _user set todo_list_version = todo_list_version + 1 "
+				+ "where id = (select user_id from todo where id = ?1)")
+				.setParameter(1, todoId)
+				.executeUpdate();
+	}
+
+	private NativeQuery<?> listVersionQuery(String sql) {
+		return entityManager.createNativeQuery(sql).unwrap(NativeQuery.class).addSynchronizedQuerySpace(LIST_VERSION_SPACE);
+	}
+
+	// Hibernate does not see these statements; when Todo is cached, drop the entries now and
+	// again after completion so a read racing the transaction cannot leave a stale copy behind
+	private void evictFromSecondLevelCache(long[] ids) {
+		Runnable eviction = () -> {
+			for(long id : ids) {
+				entityManagerFactory.getCache().evict(Todo.class, id);
+			}
+		};
+		eviction.run();
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+				@Override
+				public void afterCompletion(int status) {
+					eviction.run();
+				}
+			});
+		}
+	}
+
+	private static String placeholders(int count) {
+		return String.join(", ", Collections.nCopies(count, "?"));
+	}
+}
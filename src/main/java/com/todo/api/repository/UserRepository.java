@@ -1,11 +1,30 @@
 package com.todo.api.repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.todo.api.model.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+	// read-write on its own so logins check credentials on the primary, not a lagging replica;
+	// inside a read-only service transaction it joins that one instead
+	@Transactional
 	Optional<User> findByEmail(String email);
+	long countByIdIn(Collection<Long> ids);
+	
+	@Transactional
+	@Modifying
+	@Query("update User u set u.password = :password, u.version = u.version + 1 where u.email = :email")
+	int updatePassword(@Param("email") String email, @Param("password") String password);
+	
+	@Transactional
+	@Modifying
+	@Query("delete from User u where u.id = :id")
+	int deleteUserById(@Param("id") Long id);
 }
@@ -0,0 +1,25 @@
+package com.todo.api.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TodoBatchRequest {
+
+	public static final int MAX_SIZE = 10_000;
+
+	@Valid
+	@NotEmpty
+	@Size(max = MAX_SIZE)
+	private List<TodoRequest> todos;
+}
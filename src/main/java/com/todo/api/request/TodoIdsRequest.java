@@ -0,0 +1,21 @@
+package com.todo.api.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TodoIdsRequest {
+
+	public static final int MAX_IDS = 1000;
+
+	@NotEmpty
+	@Size(max = MAX_IDS)
+	private long[] ids;
+}
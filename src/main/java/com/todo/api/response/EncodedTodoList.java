@@ -0,0 +1,103 @@
+package com.todo.api.response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A todo list already serialized to JSON, plus a gzip copy when it is large enough to be
+ * worth compressing, the list version the rows were read at and, when the list was cut, the
+ * page cursor of the rest. The buffers never leave this class; every write works on a
+ * duplicate, so one entry can be written by many requests at once.
+ */
+public final class EncodedTodoList {
+
+	private static final int WRITE_CHUNK_SIZE = 8192;
+
+	private final long version;
+	private final String next;
+	private final ByteBuffer json;
+	private final ByteBuffer gzip;
+
+	private EncodedTodoList(long version, String next, ByteBuffer json, ByteBuffer gzip) {
+		this.version = version;
+		this.next = next;
+		this.json = json;
+		this.gzip = gzip;
+	}
+
+	/**
+	 * @param gzipMinimumSize JSON shorter than this is stored uncompressed only
+	 * @param offHeap copy the bytes into direct buffers, outside the Java heap
+	 */
+	public static EncodedTodoList of(long version, byte[] json, int gzipMinimumSize, boolean offHeap) {
+		return of(version, null, json, gzipMinimumSize, offHeap);
+	}
+
+	/**
+	 * @param next page cursor of the todos left out of this list, null when it is complete
+	 */
+	public static EncodedTodoList of(long version, String next, byte[] json, int gzipMinimumSize, boolean offHeap) {
+		byte[] gzip = json.length >= gzipMinimumSize ? gzip(json) : null;
+		return new EncodedTodoList(version, next, buffer(json, offHeap), gzip == null ? null : buffer(gzip, offHeap));
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public String getNext() {
+		return next;
+	}
+
+	public boolean hasGzip() {
+		return gzip != null;
+	}
+
+	public int length(boolean compressed) {
+		return (compressed ? gzip : json).remaining();
+	}
+
+	/**
+	 * Bytes held by this entry, for cache weighing.
+	 */
+	public int size() {
+		return json.remaining() + (gzip == null ? 0 : gzip.remaining());
+	}
+
+	public void writeTo(OutputStream out, boolean compressed) throws IOException {
+		ByteBuffer buffer = (compressed ? gzip : json).duplicate();
+		if(buffer.hasArray()) {
+			out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+			return;
+		}
+		byte[] chunk = new byte[Math.min(WRITE_CHUNK_SIZE, buffer.remaining())];
+		while(buffer.hasRemaining()) {
+			int length = Math.min(chunk.length, buffer.remaining());
+			buffer.get(chunk, 0, length);
+			out.write(chunk, 0, length);
+		}
+	}
+
+	private static ByteBuffer buffer(byte[] bytes, boolean offHeap) {
+		if(!offHeap) {
+			return ByteBuffer.wrap(bytes);
+		}
+		ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+		direct.put(bytes).flip();
+		return direct;
+	}
+
+	private static byte[] gzip(byte[] bytes) {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+		try(GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+			out.write(bytes);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return compressed.toByteArray();
+	}
+}
@@ -0,0 +1,18 @@
+package com.todo.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TodoBulkResponse {
+
+	/**
+	 * Rows changed; ids that do not exist or belong to another user are not counted.
+	 */
+	private int affected;
+}
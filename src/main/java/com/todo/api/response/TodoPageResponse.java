@@ -0,0 +1,21 @@
+package com.todo.api.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TodoPageResponse {
+
+	private List<TodoResponse> items;
+	/**
+	 * Opaque cursor for the following page, null on the last page.
+	 */
+	private String next;
+}
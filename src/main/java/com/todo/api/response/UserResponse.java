@@ -1,5 +1,6 @@
 package com.todo.api.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.todo.api.model.Role;
 import com.todo.api.model.User;
 import com.todo.api.response.UserResponse;
@@ -21,6 +22,8 @@ public class UserResponse {
     private String password;
     private String email;
     private Role role;
+    @JsonIgnore
+    private Long version;
     
     public UserResponse(User user) {
     	this.id = user.getId();
@@ -29,5 +32,6 @@ public class UserResponse {
     	this.password = user.getPassword();
     	this.email = user.getEmail();
     	this.role = user.getRole();
+    	this.version = user.getVersion();
     }
 }
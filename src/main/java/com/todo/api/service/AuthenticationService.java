@@ -1,23 +1,26 @@
 package com.todo.api.service;
 
-import java.util.Optional;
+import java.util.Map;
 
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.AuthenticationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.todo.api.config.JwtService;
 import com.todo.api.exception.CustomBadCredentialsException;
+import com.todo.api.exception.InvalidRefreshTokenException;
 import com.todo.api.exception.NotUniqueEmailException;
 import com.todo.api.exception.UserNotFoundException;
+import com.todo.api.model.AuthenticatedUser;
 import com.todo.api.model.User;
 import com.todo.api.repository.UserRepository;
 import com.todo.api.request.AuthenticationRequest;
+import com.todo.api.request.RefreshTokenRequest;
 import com.todo.api.request.RegisterRequest;
 import com.todo.api.response.AuthenticationResponse;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
@@ -28,45 +31,79 @@ public class AuthenticationService {
 	private final UserRepository repository;
 	private final PasswordEncoder passwordEncoder;
 	private final JwtService jwtService;
-	private final AuthenticationManager authenticationManager;
+	private final UserDetailsPasswordService userDetailsPasswordService;
+	private final RefreshTokenService refreshTokenService;
+	private final TokenRevocationService tokenRevocationService;
 	
-	@Transactional
 	public AuthenticationResponse register(RegisterRequest request) {
-		Optional<User> userObj = repository.findByEmail(request.getEmail());
-		if(userObj.isPresent()) {
-			throw new NotUniqueEmailException("There is a user in the system with this email address");
-		}
-		else {
-			var user = User.builder()
-					.firstName(request.getFirstName())
-					.lastName(request.getLastName())
-					.email(request.getEmail())
-					.password(passwordEncoder.encode(request.getPassword()))
-					.role(request.getRole())
-					.build();
+		// hash before touching the database so no pooled connection is held during BCrypt
+		var user = User.builder()
+				.firstName(request.getFirstName())
+				.lastName(request.getLastName())
+				.email(request.getEmail())
+				.password(passwordEncoder.encode(request.getPassword()))
+				.role(request.getRole())
+				.build();
+		try {
 			repository.save(user);
-			var jwtToken = jwtService.generateToken(user);
-			return AuthenticationResponse.builder()
-					.token(jwtToken)
-					.build();
+		} catch (DataIntegrityViolationException ex) {
+			throw new NotUniqueEmailException("There is a user in the system with this email address");
 		}
+		var jwtToken = jwtService.generateToken(AuthenticatedUser.from(user));
+		return AuthenticationResponse.builder()
+				.token(jwtToken)
+				.refreshToken(refreshTokenService.issue(user))
+				.build();
 	}
 	
 	public AuthenticationResponse authenticate(AuthenticationRequest request) {
-		return repository.findByEmail(request.getEmail())
-		        .map(user -> {
-		            try {
-		                authenticationManager.authenticate(
-		                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
-		                var jwtToken = jwtService.generateToken(user);
-		                return AuthenticationResponse.builder()
-		                    .token(jwtToken)
-		                    .userId(user.getId())
-		                    .build();
-		            } catch (AuthenticationException ex) {
-		                throw new CustomBadCredentialsException("Invalid email or password.");
-		            }})
-		        .orElseThrow(() -> new UserNotFoundException("User not found."));
+		// one lookup: the password is checked here instead of going through the
+		// AuthenticationManager, whose provider would load the same user again
+		User user = repository.findByEmail(request.getEmail())
+				.orElseThrow(() -> new UserNotFoundException("User not found."));
+		if(!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+			throw new CustomBadCredentialsException("Invalid email or password.");
+		}
+		var authenticatedUser = AuthenticatedUser.from(user);
+		if(passwordEncoder.upgradeEncoding(user.getPassword())) {
+			userDetailsPasswordService.updatePassword(authenticatedUser, passwordEncoder.encode(request.getPassword()));
+		}
+		var jwtToken = jwtService.generateToken(authenticatedUser);
+		return AuthenticationResponse.builder()
+				.token(jwtToken)
+				.refreshToken(refreshTokenService.issue(user))
+				.userId(user.getId())
+				.build();
+	}
+	
+	public Map<String, Object> jwks() {
+		return Map.of("keys", jwtService.publicKeys());
+	}
+	
+	@Transactional
+	public void logout(String accessToken, RefreshTokenRequest request) {
+		if(accessToken != null) {
+			try {
+				tokenRevocationService.revoke(jwtService.verify(accessToken));
+			} catch (JwtException | IllegalArgumentException ex) {
+				// already expired or never valid: nothing to revoke
+			}
+		}
+		if(request != null && request.getRefreshToken() != null) {
+			refreshTokenService.delete(request.getRefreshToken());
+		}
+	}
+	
+	// an expired token is deleted as it is rejected; that delete has to commit
+	@Transactional(dontRollbackOn = InvalidRefreshTokenException.class)
+	public AuthenticationResponse refresh(RefreshTokenRequest request) {
+		User user = refreshTokenService.consume(request.getRefreshToken());
+		var jwtToken = jwtService.generateToken(AuthenticatedUser.from(user));
+		return AuthenticationResponse.builder()
+				.token(jwtToken)
+				.refreshToken(refreshTokenService.issue(user))
+				.userId(user.getId())
+				.build();
 	}
 
 }
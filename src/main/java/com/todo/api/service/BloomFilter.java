@@ -0,0 +1,63 @@
+package com.todo.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over strings. Entries cannot be removed; rebuild a new
+ * filter from the remaining entries instead.
+ */
+final class BloomFilter {
+
+	private final AtomicLongArray bits;
+	private final long bitCount;
+	private final int hashCount;
+
+	BloomFilter(int expectedInsertions, double falsePositiveRate) {
+		long optimalBits = (long) Math.ceil(-Math.max(expectedInsertions, 1) * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		this.bits = new AtomicLongArray((int) Math.max(1, (optimalBits + 63) >>> 6));
+		this.bitCount = (long) bits.length() << 6;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / Math.max(expectedInsertions, 1) * Math.log(2)));
+	}
+
+	void add(String value) {
+		long hash1 = hash(value);
+		long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+		for(int i = 0; i < hashCount; i++) {
+			long index = Math.floorMod(hash1 + i * hash2, bitCount);
+			long mask = 1L << index;
+			int word = (int) (index >>> 6);
+			long current;
+			do {
+				current = bits.get(word);
+			} while((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+		}
+	}
+
+	boolean mightContain(String value) {
+		long hash1 = hash(value);
+		long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+		for(int i = 0; i < hashCount; i++) {
+			long index = Math.floorMod(hash1 + i * hash2, bitCount);
+			if((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long hash(String value) {
+		long hash = 0xCBF29CE484222325L;
+		for(byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b;
+			hash *= 0x100000001B3L;
+		}
+		return mix(hash);
+	}
+
+	private static long mix(long value) {
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		return value ^ (value >>> 31);
+	}
+}
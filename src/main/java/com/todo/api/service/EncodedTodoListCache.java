@@ -0,0 +1,66 @@
+package com.todo.api.service;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todo.api.config.CacheProperties;
+import com.todo.api.response.EncodedTodoList;
+import com.todo.api.response.TodoPageResponse;
+import com.todo.api.response.TodoResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Serialized todo lists, keyed like TodoListCache by user, list version and filter, so a write
+ * that bumps the version retires the encoded bytes too. Weighed in bytes.
+ */
+@Component
+public class EncodedTodoListCache {
+
+	private final ObjectWriter writer;
+	private final int gzipMinimumSize;
+	private final boolean offHeap;
+	private final AsyncCache<Key, EncodedTodoList> encoded;
+
+	public EncodedTodoListCache(ObjectMapper objectMapper, CacheProperties properties, MeterRegistry meterRegistry) {
+		this.writer = objectMapper.writerFor(new TypeReference<List<TodoResponse>>() {});
+		this.gzipMinimumSize = properties.getEncodedTodoList().getGzipMinimumSize();
+		this.offHeap = properties.getEncodedTodoList().isOffHeap();
+		this.encoded = Caffeine.newBuilder()
+				.maximumWeight(properties.getEncodedTodoList().getMaximumBytes())
+				.weigher((Key key, EncodedTodoList todos) -> todos.size())
+				.expireAfterAccess(properties.getTodoList().getTimeToLive())
+				.recordStats()
+				.buildAsync();
+		CaffeineCacheMetrics.monitor(meterRegistry, encoded.synchronous(), "encodedTodoLists");
+	}
+
+	/**
+	 * @param active null for all of the user's todos
+	 * @param loader called on a miss, on the calling thread; usually goes through TodoListCache itself.
+	 * Only the items are serialized, the cursor is kept beside them
+	 */
+	public EncodedTodoList get(Long userId, long version, Boolean active, Supplier<TodoPageResponse> loader) {
+		return TodoListCache.getOrLoad(encoded, new Key(userId, version, active), () -> encode(version, loader.get()));
+	}
+
+	private EncodedTodoList encode(long version, TodoPageResponse todos) {
+		try {
+			return EncodedTodoList.of(version, todos.getNext(), writer.writeValueAsBytes(todos.getItems()), gzipMinimumSize, offHeap);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Could not serialize todo list", ex);
+		}
+	}
+
+	private record Key(Long userId, long version, Boolean active) {
+	}
+}
@@ -0,0 +1,79 @@
+package com.todo.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.todo.api.config.JwtProperties;
+import com.todo.api.exception.InvalidRefreshTokenException;
+import com.todo.api.model.RefreshToken;
+import com.todo.api.model.User;
+import com.todo.api.repository.RefreshTokenRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+	
+	private static final SecureRandom RANDOM = new SecureRandom();
+	
+	private final RefreshTokenRepository refreshTokenRepository;
+	private final JwtProperties jwtProperties;
+	
+	public String issue(User user) {
+		byte[] bytes = new byte[32];
+		RANDOM.nextBytes(bytes);
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		refreshTokenRepository.save(RefreshToken.builder()
+				.tokenHash(hash(token))
+				.user(user)
+				.expiresAt(Instant.now().plus(jwtProperties.getRefreshTokenExpiration()))
+				.build());
+		return token;
+	}
+	
+	/**
+	 * Deletes the refresh token and returns its owner. Only one of two concurrent calls with
+	 * the same token sees a deleted row, so a token can never be rotated twice. Expired tokens
+	 * are deleted as well; callers must not roll that back.
+	 */
+	public User consume(String token) {
+		String tokenHash = hash(token);
+		RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
+				.orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token."));
+		if(refreshTokenRepository.deleteByTokenHash(tokenHash) == 0
+				|| refreshToken.getExpiresAt().isBefore(Instant.now())) {
+			throw new InvalidRefreshTokenException("Invalid refresh token.");
+		}
+		return refreshToken.getUser();
+	}
+	
+	/**
+	 * Removes tokens that expired without being presented again.
+	 */
+	@Scheduled(fixedDelayString = "${application.security.jwt.refresh-token-purge-interval:PT1H}")
+	public int purgeExpired() {
+		return refreshTokenRepository.deleteExpired(Instant.now());
+	}
+	
+	public void delete(String token) {
+		refreshTokenRepository.deleteByTokenHash(hash(token));
+	}
+	
+	static String hash(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest);
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
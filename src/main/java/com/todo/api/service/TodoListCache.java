@@ -0,0 +1,75 @@
+package com.todo.api.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todo.api.config.CacheProperties;
+import com.todo.api.response.TodoResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Todo lists per user, keyed by the user's list version from the database. Every write bumps
+ * the version in its own transaction, so a list cached under a version is exactly the rows of
+ * that version on every node; older lists are never looked up again and simply age out.
+ */
+@Component
+public class TodoListCache {
+
+	private final AsyncCache<Key, List<TodoResponse>> lists;
+
+	public TodoListCache(CacheProperties properties, MeterRegistry meterRegistry) {
+		// weighed by todo count, so a few huge lists cannot crowd out memory
+		this.lists = Caffeine.newBuilder()
+				.maximumWeight(properties.getTodoList().getMaximumWeight())
+				.weigher((Key key, List<TodoResponse> todos) -> todos.size() + 1)
+				.expireAfterAccess(properties.getTodoList().getTimeToLive())
+				.recordStats()
+				.buildAsync();
+		CaffeineCacheMetrics.monitor(meterRegistry, lists.synchronous(), "todoLists");
+	}
+
+	/**
+	 * Returns the cached list or loads it; concurrent misses for the same list share one load.
+	 * The load runs on the calling thread, inside its transaction, but outside the cache's
+	 * locks, so a slow query only holds up callers that want the same list. The caller must
+	 * read the version in the same transaction as the load.
+	 * @param active null for all of the user's todos
+	 */
+	public List<TodoResponse> get(Long userId, long version, Boolean active, Supplier<List<TodoResponse>> loader) {
+		return getOrLoad(lists, new Key(userId, version, active), () -> List.copyOf(loader.get()));
+	}
+
+	// the caller that inserts the future loads it; everyone else waits on that future
+	static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Supplier<V> loader) {
+		CompletableFuture<V> loading = new CompletableFuture<>();
+		CompletableFuture<V> cached = cache.get(key, (ignored, executor) -> loading);
+		if(cached == loading) {
+			try {
+				loading.complete(loader.get());
+			} catch (RuntimeException | Error ex) {
+				// a failed future is dropped from the cache, so the next caller loads again
+				loading.completeExceptionally(ex);
+				throw ex;
+			}
+		}
+		try {
+			return cached.join();
+		} catch (CompletionException ex) {
+			if(ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+
+	private record Key(Long userId, long version, Boolean active) {
+	}
+}
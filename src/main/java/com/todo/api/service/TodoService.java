@@ -1,67 +1,141 @@
 package com.todo.api.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.todo.api.exception.BatchPartiallyCreatedException;
+import com.todo.api.exception.InvalidCursorException;
 import com.todo.api.exception.TodoNotFoundException;
 import com.todo.api.exception.UserNotFoundException;
 import com.todo.api.model.Todo;
 import com.todo.api.model.User;
 import com.todo.api.repository.TodoRepository;
 import com.todo.api.repository.UserRepository;
+import com.todo.api.request.TodoBatchRequest;
+import com.todo.api.request.TodoBulkUpdateRequest;
+import com.todo.api.request.TodoIdsRequest;
 import com.todo.api.request.TodoRequest;
 import com.todo.api.request.TodoUpdateRequest;
+import com.todo.api.response.EncodedTodoList;
+import com.todo.api.response.TodoBulkResponse;
+import com.todo.api.response.TodoPageResponse;
 import com.todo.api.response.TodoResponse;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class TodoService {
 	
+	/**
+	 * Upper bound of the unpaginated list endpoints. A longer list is cut here and its encoded
+	 * form carries the getTodoPage cursor of the rest.
+	 */
+	static final int LIST_LIMIT = 1000;
+	static final int DEFAULT_PAGE_SIZE = 50;
+	static final int MAX_PAGE_SIZE = 200;
+	/** Rows per JDBC batch and per transaction in createTodos. */
+	static final int BATCH_CHUNK_SIZE = 1000;
+	// one extra row tells whether the list was cut
+	private static final Pageable FIRST_LIST_PAGE = PageRequest.ofSize(LIST_LIMIT + 1);
+	
 	private final TodoRepository todoRepository;
 	private final UserRepository userRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final TodoListCache todoListCache;
+	private final EncodedTodoListCache encodedTodoListCache;
 	
+	// the version is read in the same read-only transaction as a missed list, so whatever
+	// replica serves it, the cached rows are exactly the rows of that version
+	@Transactional(readOnly = true)
 	public List<TodoResponse> getAllTodos(Long id) {
-		Optional<User> user = userRepository.findById(id);
-		if(user.isPresent()) {
-			List<Todo> todos = todoRepository.findByUserId(id);
-			List<TodoResponse> todosResponse = todos.stream().map(todo -> new TodoResponse(todo)).collect(Collectors.toList());
-			return todosResponse;
-		}
-		else {
-			throw new UserNotFoundException("User Not Found!");
-		}
+		return page(loadAllTodos(id, listVersion(id)), LIST_LIMIT).getItems();
+	}
+	
+	/**
+	 * Version of the user's todo lists, the source of their entity tags; one primary-key read.
+	 */
+	@Transactional(readOnly = true)
+	public long getTodoListVersion(Long userId) {
+		return listVersion(userId);
 	}
 	
+	/**
+	 * getAllTodos already serialized, for writing straight to the response; getNext is the
+	 * cursor of the todos past LIST_LIMIT, if any.
+	 */
+	@Transactional(readOnly = true)
+	public EncodedTodoList getAllTodosEncoded(Long id) {
+		long version = listVersion(id);
+		return encodedTodoListCache.get(id, version, null, () -> page(loadAllTodos(id, version), LIST_LIMIT));
+	}
+	
+	// bumping the version first also proves the user exists, and takes the user's row lock
+	// before the todo rows, the same order as every other write
 	@Transactional
 	public TodoResponse createTodo(TodoRequest request) {
-		Optional<User> user = userRepository.findById(request.getUserId());
-		if(user.isPresent()) {
-			Todo todo =  new Todo();
-			todo.setTask(request.getTask());
-			todo.setActive(request.isActive());
-			todo.setUser(user.get());
-			todoRepository.save(todo);
-			TodoResponse response  = new TodoResponse(todo);
-			return response;
+		if(todoRepository.incrementListVersion(request.getUserId()) == 0) {
+			throw new UserNotFoundException("User Not Found!");
 		}
-		else {
+		Todo todo =  new Todo();
+		todo.setTask(request.getTask());
+		todo.setActive(request.isActive());
+		todo.setUser(userRepository.getReferenceById(request.getUserId()));
+		todoRepository.save(todo);
+		TodoResponse response  = new TodoResponse(todo);
+		return response;
+	}
+	
+	// not @Transactional: each chunk commits on its own, so a failure keeps the chunks already written
+	public List<TodoResponse> createTodos(TodoBatchRequest request) {
+		List<TodoRequest> todoRequests = request.getTodos();
+		Set<Long> userIds = todoRequests.stream().map(TodoRequest::getUserId).collect(Collectors.toSet());
+		if(userRepository.countByIdIn(userIds) != userIds.size()) {
 			throw new UserNotFoundException("User Not Found!");
 		}
+		List<TodoResponse> responses = new ArrayList<>(todoRequests.size());
+		for(int from = 0; from < todoRequests.size(); from += BATCH_CHUNK_SIZE) {
+			List<Todo> chunk = todoRequests.subList(from, Math.min(from + BATCH_CHUNK_SIZE, todoRequests.size())).stream()
+					.map(todoRequest -> Todo.builder()
+							.task(todoRequest.getTask())
+							.active(todoRequest.isActive())
+							.user(User.builder().id(todoRequest.getUserId()).build())
+							.build())
+					.collect(Collectors.toList());
+			Set<Long> chunkUserIds = chunk.stream().map(todo -> todo.getUser().getId()).collect(Collectors.toCollection(TreeSet::new));
+			try {
+				transactionTemplate.executeWithoutResult(status -> {
+					// sorted, so concurrent batches lock the users' rows in the same order
+					chunkUserIds.forEach(todoRepository::incrementListVersion);
+					todoRepository.insertAll(chunk);
+				});
+			} catch (RuntimeException ex) {
+				if(responses.isEmpty()) {
+					throw ex;
+				}
+				throw new BatchPartiallyCreatedException("Only the first " + responses.size() + " todos were created.", responses, ex);
+			}
+			chunk.forEach(todo -> responses.add(new TodoResponse(todo)));
+		}
+		return responses;
 	}
 	
+	// the owner's version is bumped through the todo row itself, so nothing is looked up first
 	@Transactional
 	public void deleteTodo(Long todoId) {
-		Optional<Todo> todo = todoRepository.findById(todoId);
-		if(todo.isPresent()) {
-			todoRepository.deleteById(todoId);
-		}
-		else {
+		if(todoRepository.incrementListVersionOfTodo(todoId) == 0 || todoRepository.deleteTodoById(todoId) == 0) {
 			throw new TodoNotFoundException("Todo Not Found!");
 		}
 	}
@@ -71,6 +145,7 @@ public class TodoService {
 		Optional<Todo> todo = todoRepository.findById(todoUpdateRequest.getTodoId());
 		if(todo.isPresent()) {
 			Todo todoObj =  todo.get();
+			todoRepository.incrementListVersion(todoObj.getUser().getId());
 			todoObj.setTask(todoUpdateRequest.getTask());
 			todoObj.setActive(todoUpdateRequest.isActive());
 			todoRepository.save(todoObj);
@@ -82,16 +157,97 @@ public class TodoService {
 		}
 	}
 	
+	@Transactional
+	public TodoBulkResponse updateActive(long userId, TodoBulkUpdateRequest request) {
+		todoRepository.incrementListVersion(userId);
+		return new TodoBulkResponse(todoRepository.updateActive(userId, request.getIds(), request.isActive()));
+	}
+	
+	@Transactional
+	public TodoBulkResponse markAllDone(long userId) {
+		todoRepository.incrementListVersion(userId);
+		return new TodoBulkResponse(todoRepository.markAllDone(userId));
+	}
+	
+	@Transactional
+	public TodoBulkResponse deleteTodos(long userId, TodoIdsRequest request) {
+		todoRepository.incrementListVersion(userId);
+		return new TodoBulkResponse(todoRepository.deleteByIds(userId, request.getIds()));
+	}
+	
+	@Transactional
+	public TodoBulkResponse deleteCompleted(long userId) {
+		todoRepository.incrementListVersion(userId);
+		return new TodoBulkResponse(todoRepository.deleteCompleted(userId));
+	}
+	
+	@Transactional(readOnly = true)
 	public List<TodoResponse> findTodosByActive(boolean active, Long userId){
-		Optional<User> user =  userRepository.findById(userId);
-		if(user.isPresent()) {
-			List<Todo> todos = todoRepository.findByActiveAndUserId(active,userId);
-			List<TodoResponse> todosResponse  = todos.stream().map(todo -> new TodoResponse(todo)).collect(Collectors.toList());
-			return todosResponse;
-		}
-		else {
+		return page(loadTodosByActive(active, userId, listVersion(userId)), LIST_LIMIT).getItems();
+	}
+	
+	@Transactional(readOnly = true)
+	public EncodedTodoList findTodosByActiveEncoded(boolean active, Long userId) {
+		long version = listVersion(userId);
+		return encodedTodoListCache.get(userId, version, active, () -> page(loadTodosByActive(active, userId, version), LIST_LIMIT));
+	}
+	
+	private List<TodoResponse> loadAllTodos(Long userId, long version) {
+		return todoListCache.get(userId, version, null, () -> todoRepository.findResponsesByUserId(userId, 0L, FIRST_LIST_PAGE));
+	}
+	
+	private List<TodoResponse> loadTodosByActive(boolean active, Long userId, long version) {
+		return todoListCache.get(userId, version, active,
+				() -> todoRepository.findResponsesByActiveAndUserId(active, userId, 0L, FIRST_LIST_PAGE));
+	}
+	
+	private long listVersion(Long userId) {
+		return todoRepository.findListVersion(userId).orElseThrow(() -> new UserNotFoundException("User Not Found!"));
+	}
+	
+	@Transactional(readOnly = true)
+	public TodoPageResponse getTodoPage(Long userId, Boolean active, String cursor, Integer limit) {
+		int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		long afterId = decodeCursor(cursor);
+		// one extra row tells whether another page follows
+		Pageable pageable = PageRequest.ofSize(pageSize + 1);
+		List<TodoResponse> todos = active == null
+				? todoRepository.findResponsesByUserId(userId, afterId, pageable)
+				: todoRepository.findResponsesByActiveAndUserId(active, userId, afterId, pageable);
+		requireUserIfEmpty(todos, userId);
+		return page(todos, pageSize);
+	}
+	
+	private static TodoPageResponse page(List<TodoResponse> todos, int pageSize) {
+		boolean hasNext = todos.size() > pageSize;
+		List<TodoResponse> items = hasNext ? todos.subList(0, pageSize) : todos;
+		return TodoPageResponse.builder()
+				.items(items)
+				.next(hasNext ? encodeCursor(items.get(items.size() - 1).getId()) : null)
+				.build();
+	}
+	
+	// a non-empty result already proves the user exists; only an empty one needs the lookup,
+	// which findById can answer from the second-level cache
+	private void requireUserIfEmpty(List<TodoResponse> todos, Long userId) {
+		if(todos.isEmpty() && userRepository.findById(userId).isEmpty()) {
 			throw new UserNotFoundException("User Not Found!");
 		}
 	}
+	
+	static String encodeCursor(Long id) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+	}
+	
+	static long decodeCursor(String cursor) {
+		if(cursor == null || cursor.isEmpty()) {
+			return 0L;
+		}
+		try {
+			return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+		} catch (IllegalArgumentException ex) {
+			throw new InvalidCursorException("Invalid cursor.");
+		}
+	}
 }
 
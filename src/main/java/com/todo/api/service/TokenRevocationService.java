@@ -0,0 +1,187 @@
+package com.todo.api.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.todo.api.config.JwtProperties;
+import com.todo.api.config.RevocationProperties;
+import com.todo.api.config.TokenRevocationCheck;
+import com.todo.api.config.VerifiedToken;
+import com.todo.api.repository.RefreshTokenRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revoked token ids (jti) and per-user not-before timestamps. Lookups go through a
+ * Bloom filter so the common case, a token that was never revoked, costs a few bit
+ * reads; only filter hits consult the exact map.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService implements TokenRevocationCheck {
+	
+	private static final int SNAPSHOT_VERSION = 1;
+	
+	private final JwtProperties jwtProperties;
+	private final RevocationProperties properties;
+	private final RefreshTokenRepository refreshTokenRepository;
+	
+	/** jti -> token expiry in epoch millis */
+	private final Map<String, Long> revokedIds = new ConcurrentHashMap<>();
+	/** user id -> tokens issued before this epoch second are revoked, stored in millis */
+	private final Map<Long, Long> notBefore = new ConcurrentHashMap<>();
+	private final Object writeLock = new Object();
+	private volatile BloomFilter bloomFilter;
+	private volatile boolean dirty;
+	
+	public TokenRevocationService(JwtProperties jwtProperties, RevocationProperties properties,
+			RefreshTokenRepository refreshTokenRepository) {
+		this.jwtProperties = jwtProperties;
+		this.properties = properties;
+		this.refreshTokenRepository = refreshTokenRepository;
+		this.bloomFilter = newBloomFilter();
+	}
+	
+	@Override
+	public boolean isRevoked(VerifiedToken token) {
+		String id = token.getId();
+		if(id != null && bloomFilter.mightContain(id) && revokedIds.containsKey(id)) {
+			return true;
+		}
+		Long userId = token.getUserId();
+		if(userId == null || notBefore.isEmpty()) {
+			return false;
+		}
+		Long revokedBefore = notBefore.get(userId);
+		Date issuedAt = token.getIssuedAt();
+		return revokedBefore != null && (issuedAt == null || issuedAt.getTime() < revokedBefore);
+	}
+	
+	public void revoke(VerifiedToken token) {
+		if(token.getId() == null || token.getExpiration() == null) {
+			return;
+		}
+		synchronized(writeLock) {
+			revokedIds.put(token.getId(), token.getExpiration().getTime());
+			bloomFilter.add(token.getId());
+			dirty = true;
+		}
+	}
+	
+	/**
+	 * Revokes every access token issued to the user so far and deletes their refresh tokens.
+	 */
+	@Transactional
+	public void revokeAllForUser(Long userId) {
+		// iat has second precision: a token issued earlier in the current second stays valid
+		long now = System.currentTimeMillis() / 1000 * 1000;
+		notBefore.merge(userId, now, Math::max);
+		dirty = true;
+		refreshTokenRepository.deleteByUserId(userId);
+	}
+	
+	@Scheduled(fixedDelayString = "${application.security.revocation.flush-interval:PT10S}")
+	public void pruneAndFlush() {
+		long now = System.currentTimeMillis();
+		long accessTokenLifetime = jwtProperties.getAccessTokenExpiration().toMillis();
+		if(notBefore.values().removeIf(revokedBefore -> revokedBefore + accessTokenLifetime < now)) {
+			dirty = true;
+		}
+		synchronized(writeLock) {
+			if(revokedIds.values().removeIf(expiration -> expiration < now)) {
+				BloomFilter rebuilt = newBloomFilter();
+				revokedIds.keySet().forEach(rebuilt::add);
+				bloomFilter = rebuilt;
+				dirty = true;
+			}
+		}
+		if(dirty) {
+			writeSnapshot();
+		}
+	}
+	
+	@PostConstruct
+	void readSnapshot() {
+		Path file = snapshotFile();
+		if(file == null || !Files.exists(file)) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		try(DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+			if(in.readInt() != SNAPSHOT_VERSION) {
+				return;
+			}
+			synchronized(writeLock) {
+				for(int i = in.readInt(); i > 0; i--) {
+					String id = in.readUTF();
+					long expiration = in.readLong();
+					if(expiration >= now) {
+						revokedIds.put(id, expiration);
+						bloomFilter.add(id);
+					}
+				}
+			}
+			for(int i = in.readInt(); i > 0; i--) {
+				notBefore.merge(in.readLong(), in.readLong(), Math::max);
+			}
+		} catch (IOException ex) {
+			log.warn("Could not read token revocation snapshot {}", file, ex);
+		}
+	}
+	
+	@PreDestroy
+	void writeSnapshot() {
+		Path file = snapshotFile();
+		if(file == null) {
+			return;
+		}
+		dirty = false;
+		Map<String, Long> ids = Map.copyOf(revokedIds);
+		Map<Long, Long> users = Map.copyOf(notBefore);
+		try {
+			Path parent = file.toAbsolutePath().getParent();
+			Files.createDirectories(parent);
+			Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+			try(OutputStream stream = Files.newOutputStream(temp); DataOutputStream out = new DataOutputStream(stream)) {
+				out.writeInt(SNAPSHOT_VERSION);
+				out.writeInt(ids.size());
+				for(Map.Entry<String, Long> entry : ids.entrySet()) {
+					out.writeUTF(entry.getKey());
+					out.writeLong(entry.getValue());
+				}
+				out.writeInt(users.size());
+				for(Map.Entry<Long, Long> entry : users.entrySet()) {
+					out.writeLong(entry.getKey());
+					out.writeLong(entry.getValue());
+				}
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ex) {
+			dirty = true;
+			log.warn("Could not write token revocation snapshot {}", file, ex);
+		}
+	}
+	
+	private Path snapshotFile() {
+		String snapshotFile = properties.getSnapshotFile();
+		return snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+	}
+	
+	private BloomFilter newBloomFilter() {
+		return new BloomFilter(properties.getExpectedRevocations(), properties.getFalsePositiveRate());
+	}
+}
@@ -4,9 +4,13 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.todo.api.config.UserDetailsCache;
 import com.todo.api.exception.NotUniqueEmailException;
 import com.todo.api.exception.UserNotFoundException;
 import com.todo.api.model.User;
@@ -15,7 +19,6 @@ import com.todo.api.request.RegisterRequest;
 import com.todo.api.request.UserUpdateRequest;
 import com.todo.api.response.UserResponse;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -23,43 +26,46 @@ import lombok.RequiredArgsConstructor;
 public class UserService {
 	
 	private final UserRepository userRepository;
+	private final UserDetailsCache userDetailsCache;
+	private final PasswordEncoder passwordEncoder;
+	private final TokenRevocationService tokenRevocationService;
+	private final TransactionTemplate transactionTemplate;
 	
+	@Transactional(readOnly = true)
 	public List<UserResponse> getAllUsers(){
 		List<User> users = userRepository.findAll();
 		List<UserResponse> usersResponse = users.stream().map(user -> new UserResponse(user)).collect(Collectors.toList());
 		return usersResponse;
 	}
 	
-	@Transactional
 	public UserResponse createUser(RegisterRequest request) {
-		Optional<User> userObj =  userRepository.findByEmail(request.getEmail());
-		if(userObj.isPresent()) {
-			throw new NotUniqueEmailException("There is a user in the system with this email address");
-		}
+		String encodedPassword = passwordEncoder.encode(request.getPassword());
 		User user = new User();
 		user.setFirstName(request.getFirstName());
 		user.setLastName(request.getLastName());
 		user.setEmail(request.getEmail());
-		String encodedPassword = new BCryptPasswordEncoder().encode(request.getPassword());
 		user.setPassword(encodedPassword);
 		user.setRole(request.getRole());
-		userRepository.save(user);
+		try {
+			userRepository.save(user);
+		} catch (DataIntegrityViolationException ex) {
+			throw new NotUniqueEmailException("There is a user in the system with this email address");
+		}
 		UserResponse response = new UserResponse(user);
 		return response;
 	}
 	
 	@Transactional
 	public void deleteUser(Long id) {
-		Optional<User> user = userRepository.findById(id);
-		if(user.isPresent()) {
-			userRepository.deleteById(id);
-		}
-		else {
+		if(userRepository.deleteUserById(id) == 0) {
 			throw new UserNotFoundException("User Not Found!");
 		}
+		tokenRevocationService.revokeAllForUser(id);
+		userDetailsCache.invalidateUser(id);
 	}
 	
 	
+	@Transactional(readOnly = true)
 	public UserResponse findUserByEmail(String email) {
 		Optional<User> user = userRepository.findByEmail(email);
 		if(user.isPresent()) {
@@ -71,30 +77,40 @@ public class UserService {
 		}
 	}
 	
-	@Transactional
 	public UserResponse updateUser(UserUpdateRequest request) {
-		Optional<User> user = userRepository.findById(request.getUserId());
-		if(user.isPresent()) {
-			User userObj =user.get();
-			userObj.setFirstName(request.getFirstName());
-			userObj.setLastName(request.getLastName());
-			String encodedPassword = new BCryptPasswordEncoder().encode(request.getPassword());
-			userObj.setPassword(encodedPassword);
-			
-			Optional<User> existingUser = userRepository.findByEmail(request.getEmail());
-	        if (existingUser.isPresent() && !existingUser.get().getEmail().equals(userObj.getEmail())) {
-	            throw new NotUniqueEmailException("There is a user in the system with this email address");
-	        } else {
-	            userObj.setEmail(request.getEmail());
-	        }
-	        
-			userRepository.save(userObj);
-			UserResponse response  = new UserResponse(userObj);
-			return response;
-		}
-		else {
-			throw new UserNotFoundException("User Not Found!");
+		// not @Transactional: BCrypt runs before any connection is taken from the pool
+		String encodedPassword = passwordEncoder.encode(request.getPassword());
+		User userObj;
+		try {
+			// the evictions registered in here run again after commit, so a login that reloads
+			// the old row while the update is in flight cannot keep the old password cached
+			userObj = transactionTemplate.execute(status -> {
+				Optional<User> user = userRepository.findById(request.getUserId());
+				if(user.isEmpty()) {
+					throw new UserNotFoundException("User Not Found!");
+				}
+				User updated = user.get();
+				userDetailsCache.invalidate(updated.getEmail());
+				updated.setFirstName(request.getFirstName());
+				updated.setLastName(request.getLastName());
+				updated.setPassword(encodedPassword);
+				
+				Optional<User> existingUser = userRepository.findByEmail(request.getEmail());
+		        if (existingUser.isPresent() && !existingUser.get().getEmail().equals(updated.getEmail())) {
+		            throw new NotUniqueEmailException("There is a user in the system with this email address");
+		        } else {
+		            updated.setEmail(request.getEmail());
+		            userDetailsCache.invalidate(request.getEmail());
+		        }
+		        userRepository.save(updated);
+		        return updated;
+			});
+		} catch (DataIntegrityViolationException ex) {
+			throw new NotUniqueEmailException("There is a user in the system with this email address");
 		}
+		tokenRevocationService.revokeAllForUser(userObj.getId());
+		UserResponse response  = new UserResponse(userObj);
+		return response;
 	}
 
 }
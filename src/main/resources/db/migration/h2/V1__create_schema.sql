@@ -0,0 +1,29 @@
+-- H2 counterpart of db/migration/mysql, used by the embedded test database.
+
+CREATE TABLE IF NOT EXISTS _user (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    email VARCHAR(255),
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    password VARCHAR(255),
+    role VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS todo (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    active BOOLEAN NOT NULL,
+    task VARCHAR(255),
+    user_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_todo_user FOREIGN KEY (user_id) REFERENCES _user (id)
+);
+
+CREATE TABLE IF NOT EXISTS refresh_token (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    token_hash VARCHAR(64) NOT NULL,
+    user_id BIGINT NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES _user (id) ON DELETE CASCADE
+);
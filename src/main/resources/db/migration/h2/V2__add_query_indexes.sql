@@ -0,0 +1,8 @@
+-- findByEmail on every login and token lookup; also enforces one account per address
+CREATE UNIQUE INDEX idx_user_email ON _user (email);
+
+-- todo listings and keyset pages by user, with and without the active filter
+CREATE INDEX idx_todo_user_id ON todo (user_id, id);
+CREATE INDEX idx_todo_user_active_id ON todo (user_id, active, id);
+
+CREATE UNIQUE INDEX idx_refresh_token_hash ON refresh_token (token_hash);
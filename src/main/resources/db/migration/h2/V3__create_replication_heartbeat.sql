@@ -0,0 +1,8 @@
+-- written on the primary and read back from each replica by ReplicaLagMonitor
+CREATE TABLE replication_heartbeat (
+    id INT NOT NULL,
+    beat BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO replication_heartbeat (id, beat) VALUES (1, 0);
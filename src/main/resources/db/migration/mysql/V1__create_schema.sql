@@ -0,0 +1,29 @@
+-- Tables as previously created by ddl-auto=update; IF NOT EXISTS lets existing schemas adopt this history.
+
+CREATE TABLE IF NOT EXISTS _user (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255),
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    password VARCHAR(255),
+    role VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS todo (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    active BIT(1) NOT NULL,
+    task VARCHAR(255),
+    user_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_todo_user FOREIGN KEY (user_id) REFERENCES _user (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS refresh_token (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    token_hash VARCHAR(64) NOT NULL,
+    user_id BIGINT NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES _user (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
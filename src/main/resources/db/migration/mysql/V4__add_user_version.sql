@@ -0,0 +1,2 @@
+-- optimistic locking column for User; also the row version behind the user endpoints' ETags
+ALTER TABLE _user ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,2 @@
+-- the scheduled purge of expired refresh tokens
+CREATE INDEX idx_refresh_token_expires_at ON refresh_token (expires_at);
@@ -0,0 +1,8 @@
+-- ES256 keys shared by every node, one per rotation slot; private_key is AES-GCM encrypted
+CREATE TABLE signing_key (
+    slot BIGINT NOT NULL,
+    kid VARCHAR(36) NOT NULL,
+    public_key VARBINARY(512) NOT NULL,
+    private_key VARBINARY(512) NOT NULL,
+    PRIMARY KEY (slot)
+) ENGINE = InnoDB;
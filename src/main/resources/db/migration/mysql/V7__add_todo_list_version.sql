@@ -0,0 +1,2 @@
+-- bumped in every transaction that changes the user's todos; keys the cached lists and their ETags on every node
+ALTER TABLE _user ADD COLUMN todo_list_version BIGINT NOT NULL DEFAULT 0;
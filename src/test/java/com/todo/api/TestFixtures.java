@@ -0,0 +1,33 @@
+package com.todo.api;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.api.config.CacheProperties;
+import com.todo.api.repository.TodoRepository;
+import com.todo.api.repository.UserRepository;
+import com.todo.api.service.EncodedTodoListCache;
+import com.todo.api.service.TodoListCache;
+import com.todo.api.service.TodoService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public final class TestFixtures {
+
+	/** Base64 HMAC key for JwtProperties.secretKey. */
+	public static final String SECRET_KEY = "576D5A7134743777217A25432A462D4A614E645267556A586E3272357538782F";
+
+	private TestFixtures() {
+	}
+
+	/**
+	 * A TodoService with list caches of its own, as on a freshly started node.
+	 */
+	public static TodoService todoService(TodoRepository todoRepository, UserRepository userRepository,
+			TransactionTemplate transactionTemplate) {
+		CacheProperties properties = new CacheProperties();
+		return new TodoService(todoRepository, userRepository, transactionTemplate,
+				new TodoListCache(properties, new SimpleMeterRegistry()),
+				new EncodedTodoListCache(new ObjectMapper(), properties, new SimpleMeterRegistry()));
+	}
+}
@@ -0,0 +1,28 @@
+package com.todo.api.benchmark;
+
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.todo.api.TestFixtures;
+import com.todo.api.config.JwtProperties;
+import com.todo.api.config.JwtService;
+import com.todo.api.config.SigningKeyRing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+final class BenchmarkFixtures {
+
+	private BenchmarkFixtures() {
+	}
+
+	static JwtService jwtService(JwtProperties properties) {
+		return new JwtService(properties, new SimpleMeterRegistry(), new SigningKeyRing(properties, Mockito.mock(JdbcTemplate.class)));
+	}
+
+	static JwtProperties jwtProperties() {
+		JwtProperties properties = new JwtProperties();
+		properties.setSecretKey(TestFixtures.SECRET_KEY);
+		properties.setTokenCacheSize(0);
+		return properties;
+	}
+}
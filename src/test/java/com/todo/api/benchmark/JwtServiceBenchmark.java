@@ -0,0 +1,79 @@
+package com.todo.api.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.todo.api.TestFixtures;
+import com.todo.api.config.JwtService;
+import com.todo.api.config.VerifiedToken;
+import com.todo.api.model.AuthenticatedUser;
+import com.todo.api.model.Role;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Per-request cost of authenticating a bearer token in JwtAuthenticationFilter.
+ * parsePerClaim replays the old path (subject, then subject and expiry again: three parses),
+ * parseOnce is the current one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtServiceBenchmark {
+
+	private JwtService jwtService;
+	private JwtParser parser;
+	private AuthenticatedUser user;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtService = BenchmarkFixtures.jwtService(BenchmarkFixtures.jwtProperties());
+		parser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(TestFixtures.SECRET_KEY))).build();
+		user = new AuthenticatedUser(1L, "ahmet@gmail.com", "password", Role.USER);
+		token = jwtService.generateToken(user);
+	}
+
+	@Benchmark
+	public boolean parsePerClaim() {
+		String userEmail = claims().getSubject();
+		return userEmail != null && claims().getSubject().equals(user.getUsername()) && !claims().getExpiration().before(new Date());
+	}
+
+	@Benchmark
+	public boolean parseOnce() {
+		VerifiedToken verified = jwtService.verify(token);
+		return verified.getSubject() != null && jwtService.isTokenValid(verified, user);
+	}
+
+	private Claims claims() {
+		return parser.parseClaimsJws(token).getBody();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtServiceBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,91 @@
+package com.todo.api.benchmark;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.todo.api.TestFixtures;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Sign and verify cost per algorithm. EdDSA is not part of the comparison because
+ * jjwt 0.11 cannot sign or verify it; RS256 stands in as the other asymmetric option.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtSigningAlgorithmBenchmark {
+
+	@Param({"HS256", "ES256", "RS256"})
+	private String algorithm;
+
+	private SignatureAlgorithm signatureAlgorithm;
+	private Key signingKey;
+	private JwtParser parser;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		signatureAlgorithm = SignatureAlgorithm.forName(algorithm);
+		Key verificationKey;
+		if(signatureAlgorithm.isHmac()) {
+			signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(TestFixtures.SECRET_KEY));
+			verificationKey = signingKey;
+		} else {
+			KeyPair keyPair = Keys.keyPairFor(signatureAlgorithm);
+			signingKey = keyPair.getPrivate();
+			verificationKey = keyPair.getPublic();
+		}
+		parser = Jwts.parserBuilder().setSigningKey(verificationKey).build();
+		token = sign();
+	}
+
+	@Benchmark
+	public String sign() {
+		long now = System.currentTimeMillis();
+		return Jwts.builder()
+				.setSubject("ahmet@gmail.com")
+				.claim("uid", 1L)
+				.claim("role", "USER")
+				.setIssuedAt(new Date(now))
+				.setExpiration(new Date(now + 900_000))
+				.signWith(signingKey, signatureAlgorithm)
+				.compact();
+	}
+
+	@Benchmark
+	public Claims verify() {
+		return parser.parseClaimsJws(token).getBody();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtSigningAlgorithmBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
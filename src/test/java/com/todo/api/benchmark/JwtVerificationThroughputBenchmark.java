@@ -0,0 +1,74 @@
+package com.todo.api.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.todo.api.TestFixtures;
+import com.todo.api.config.JwtService;
+import com.todo.api.model.AuthenticatedUser;
+import com.todo.api.model.Role;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Token verification throughput with all request threads sharing one JwtService.
+ * rebuildParserPerCall reproduces the old behaviour of decoding the key and
+ * building a parser for every verification.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(Threads.MAX)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtVerificationThroughputBenchmark {
+
+	private JwtService jwtService;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtService = BenchmarkFixtures.jwtService(BenchmarkFixtures.jwtProperties());
+		token = jwtService.generateToken(new AuthenticatedUser(1L, "ahmet@gmail.com", "password", Role.USER));
+	}
+
+	@Benchmark
+	public String sharedParser() {
+		return jwtService.verify(token).getSubject();
+	}
+
+	@Benchmark
+	public String rebuildParserPerCall() {
+		Claims claims = Jwts
+				.parserBuilder()
+				.setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(TestFixtures.SECRET_KEY)))
+				.build()
+				.parseClaimsJws(token)
+				.getBody();
+		return claims.getSubject();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtVerificationThroughputBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,76 @@
+package com.todo.api.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.todo.api.config.LoginThrottle;
+import com.todo.api.config.LoginThrottleProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * LoginThrottle throughput with every thread hammering one email and client address
+ * (worst-case CAS contention) and with attempts spread over many keys.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(Threads.MAX)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoginThrottleBenchmark {
+
+	private static final int KEYS = 10_000;
+
+	private LoginThrottle loginThrottle;
+	private String[] emails;
+	private String[] clientAddresses;
+
+	@Setup
+	public void setUp() {
+		LoginThrottleProperties properties = new LoginThrottleProperties();
+		properties.setEmailRefill(Duration.ofNanos(1));
+		properties.setIpRefill(Duration.ofNanos(1));
+		loginThrottle = new LoginThrottle(properties, new SimpleMeterRegistry());
+		emails = new String[KEYS];
+		clientAddresses = new String[KEYS];
+		for(int i = 0; i < KEYS; i++) {
+			emails[i] = "user" + i + "@gmail.com";
+			clientAddresses[i] = "10.0." + (i >> 8) + "." + (i & 0xFF);
+		}
+	}
+
+	@Benchmark
+	public long sameKey() {
+		return loginThrottle.tryAcquire(emails[0], clientAddresses[0]);
+	}
+
+	@Benchmark
+	public long distinctKeys() {
+		int i = ThreadLocalRandom.current().nextInt(KEYS);
+		return loginThrottle.tryAcquire(emails[i], clientAddresses[i]);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(LoginThrottleBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
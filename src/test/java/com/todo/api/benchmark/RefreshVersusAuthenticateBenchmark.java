@@ -0,0 +1,107 @@
+package com.todo.api.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.todo.api.config.JwtService;
+import com.todo.api.model.RefreshToken;
+import com.todo.api.model.Role;
+import com.todo.api.model.User;
+import com.todo.api.repository.RefreshTokenRepository;
+import com.todo.api.repository.UserRepository;
+import com.todo.api.request.AuthenticationRequest;
+import com.todo.api.request.RefreshTokenRequest;
+import com.todo.api.response.AuthenticationResponse;
+import com.todo.api.service.AuthenticationService;
+import com.todo.api.service.RefreshTokenService;
+import com.todo.api.service.TokenRevocationService;
+
+/**
+ * Server-side cost of renewing a session through /refresh versus logging in again.
+ * Repositories are in-memory stubs, so the numbers compare the CPU work (BCrypt versus
+ * SHA-256 and a JWT signature); refresh additionally pays for a DELETE and an INSERT
+ * in production that this benchmark does not include.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(Threads.MAX)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RefreshVersusAuthenticateBenchmark {
+
+	@Param({"10", "12"})
+	private int strength;
+
+	private AuthenticationService authenticationService;
+	private AuthenticationRequest authenticationRequest;
+	private RefreshTokenRequest refreshTokenRequest;
+
+	@Setup
+	public void setUp() {
+		BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(strength);
+		User user = User.builder()
+				.id(1L)
+				.email("ahmet@gmail.com")
+				.password(passwordEncoder.encode("password"))
+				.role(Role.USER)
+				.build();
+
+		UserRepository userRepository = Mockito.mock(UserRepository.class, Mockito.withSettings().stubOnly());
+		Mockito.when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+		RefreshTokenRepository refreshTokenRepository = Mockito.mock(RefreshTokenRepository.class, Mockito.withSettings().stubOnly());
+		RefreshToken refreshToken = RefreshToken.builder().user(user).expiresAt(Instant.MAX).build();
+		Mockito.when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(refreshToken));
+		Mockito.when(refreshTokenRepository.deleteByTokenHash(anyString())).thenReturn(1);
+		Mockito.when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(refreshToken);
+
+		authenticationService = new AuthenticationService(userRepository, passwordEncoder,
+				BenchmarkFixtures.jwtService(BenchmarkFixtures.jwtProperties()),
+				Mockito.mock(UserDetailsPasswordService.class, Mockito.withSettings().stubOnly()),
+				new RefreshTokenService(refreshTokenRepository, BenchmarkFixtures.jwtProperties()),
+				Mockito.mock(TokenRevocationService.class, Mockito.withSettings().stubOnly()));
+		authenticationRequest = new AuthenticationRequest(user.getEmail(), "password");
+		refreshTokenRequest = new RefreshTokenRequest("refreshToken");
+	}
+
+	@Benchmark
+	public AuthenticationResponse authenticate() {
+		return authenticationService.authenticate(authenticationRequest);
+	}
+
+	@Benchmark
+	public AuthenticationResponse refresh() {
+		return authenticationService.refresh(refreshTokenRequest);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(RefreshVersusAuthenticateBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,131 @@
+package com.todo.api.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.todo.api.TestFixtures;
+import com.todo.api.model.Role;
+import com.todo.api.model.Todo;
+import com.todo.api.model.User;
+import com.todo.api.repository.TodoRepository;
+import com.todo.api.repository.UserRepository;
+import com.todo.api.request.TodoBatchRequest;
+import com.todo.api.request.TodoRequest;
+import com.todo.api.service.TodoService;
+
+
+
+/**
+ * Rows per second for creating todos one save() at a time in a single transaction versus
+ * TodoService.createTodos (chunked JDBC batches). Defaults to in-memory H2; pass a MySQL
+ * url with rewriteBatchedStatements=true as --spring.datasource.url to measure the real thing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TodoBatchInsertBenchmark {
+
+	@Param({"1", "100", "10000"})
+	private int items;
+
+	private ConfigurableApplicationContext context;
+	private TodoRepository todoRepository;
+	private TodoService todoService;
+	private TransactionTemplate transactionTemplate;
+	private JdbcTemplate jdbcTemplate;
+	private User user;
+	private TodoBatchRequest request;
+
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Rows {
+		public long rows;
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(TodoReadBenchmark.PersistenceOnly.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:todo-batch;DB_CLOSE_DELAY=-1",
+						"--spring.datasource.driver-class-name=org.h2.Driver",
+						"--spring.datasource.username=sa",
+						"--spring.datasource.password=");
+		todoRepository = context.getBean(TodoRepository.class);
+		UserRepository userRepository = context.getBean(UserRepository.class);
+		transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		jdbcTemplate = context.getBean(JdbcTemplate.class);
+		todoService = TestFixtures.todoService(todoRepository, userRepository, transactionTemplate);
+		user = userRepository.save(User.builder()
+				.firstName("ahmet")
+				.lastName("ahmet")
+				.email("ahmet@gmail.com")
+				.password("encodedPassword")
+				.role(Role.USER)
+				.build());
+		List<TodoRequest> todos = IntStream.range(0, items)
+				.mapToObj(i -> TodoRequest.builder().task("task " + i).active(i % 2 == 0).userId(user.getId()).build())
+				.collect(Collectors.toList());
+		request = new TodoBatchRequest(todos);
+	}
+
+	@Setup(Level.Iteration)
+	public void truncate() {
+		jdbcTemplate.update("delete from todo");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public void saveEach(Rows rows) {
+		transactionTemplate.executeWithoutResult(status -> {
+			for(TodoRequest todoRequest : request.getTodos()) {
+				todoRepository.save(Todo.builder().task(todoRequest.getTask()).active(todoRequest.isActive()).user(user).build());
+			}
+		});
+		rows.rows += items;
+	}
+
+	@Benchmark
+	public void jdbcBatch(Rows rows) {
+		todoService.createTodos(request);
+		rows.rows += items;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(TodoBatchInsertBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
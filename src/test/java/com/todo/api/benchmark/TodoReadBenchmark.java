@@ -0,0 +1,128 @@
+package com.todo.api.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.todo.api.model.Role;
+import com.todo.api.model.Todo;
+import com.todo.api.model.User;
+import com.todo.api.repository.TodoRepository;
+import com.todo.api.repository.UserRepository;
+import com.todo.api.response.TodoResponse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Listing a user's todos from a seeded in-memory H2 database: loading entities and mapping
+ * them versus selecting straight into TodoResponse. Run with -prof gc for allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TodoReadBenchmark {
+
+	@Param({"100", "1000"})
+	private int todos;
+
+	private ConfigurableApplicationContext context;
+	private EntityManagerFactory entityManagerFactory;
+	private TodoRepository todoRepository;
+	private Long userId;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(PersistenceOnly.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:todo-read;DB_CLOSE_DELAY=-1",
+						"--spring.datasource.driver-class-name=org.h2.Driver",
+						"--spring.datasource.username=sa",
+						"--spring.datasource.password=",
+						"--spring.jpa.hibernate.ddl-auto=create-drop");
+		entityManagerFactory = context.getBean(EntityManagerFactory.class);
+		todoRepository = context.getBean(TodoRepository.class);
+		UserRepository userRepository = context.getBean(UserRepository.class);
+		new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+			User user = userRepository.save(User.builder()
+					.firstName("ahmet")
+					.lastName("ahmet")
+					.email("ahmet@gmail.com")
+					.password("encodedPassword")
+					.role(Role.USER)
+					.build());
+			userId = user.getId();
+			for(int i = 0; i < todos; i++) {
+				todoRepository.save(Todo.builder().task("task " + i).active(i % 2 == 0).user(user).build());
+			}
+		});
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	// the old read path: managed entities mapped afterwards, as the derived findByUserId query did
+	@Benchmark
+	public List<TodoResponse> loadEntities() {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			return entityManager.createQuery("select t from Todo t where t.user.id = :userId", Todo.class)
+					.setParameter("userId", userId)
+					.getResultStream()
+					.map(TodoResponse::new)
+					.collect(Collectors.toList());
+		} finally {
+			entityManager.close();
+		}
+	}
+
+	@Benchmark
+	public List<TodoResponse> projection() {
+		return todoRepository.findResponsesByUserId(userId, 0L, PageRequest.ofSize(todos));
+	}
+
+	@SpringBootConfiguration
+	@EnableAutoConfiguration
+	@EntityScan(basePackageClasses = Todo.class)
+	@EnableJpaRepositories(basePackageClasses = TodoRepository.class)
+	static class PersistenceOnly {
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(TodoReadBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,65 @@
+package com.todo.api.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.todo.api.config.JwtProperties;
+import com.todo.api.config.JwtService;
+import com.todo.api.model.AuthenticatedUser;
+import com.todo.api.model.Role;
+
+/**
+ * Repeat verification of the same bearer token with and without the verified-token cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(Threads.MAX)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VerifiedTokenCacheBenchmark {
+
+	private JwtService cachingJwtService;
+	private JwtService uncachedJwtService;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		JwtProperties cachingProperties = BenchmarkFixtures.jwtProperties();
+		cachingProperties.setTokenCacheSize(10_000);
+		cachingJwtService = BenchmarkFixtures.jwtService(cachingProperties);
+		uncachedJwtService = BenchmarkFixtures.jwtService(BenchmarkFixtures.jwtProperties());
+		token = uncachedJwtService.generateToken(new AuthenticatedUser(1L, "ahmet@gmail.com", "password", Role.USER));
+	}
+
+	@Benchmark
+	public String cached() {
+		return cachingJwtService.verify(token).getSubject();
+	}
+
+	@Benchmark
+	public String uncached() {
+		return uncachedJwtService.verify(token).getSubject();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(VerifiedTokenCacheBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
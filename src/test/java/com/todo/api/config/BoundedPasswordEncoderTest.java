@@ -0,0 +1,86 @@
+package com.todo.api.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.todo.api.exception.PasswordHashingUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+	private CountDownLatch started;
+	private CountDownLatch release;
+	private SimpleMeterRegistry meterRegistry;
+	private BoundedPasswordEncoder passwordEncoder;
+
+	@BeforeEach
+	void setUp() {
+		started = new CountDownLatch(1);
+		release = new CountDownLatch(1);
+		meterRegistry = new SimpleMeterRegistry();
+		PasswordHashingProperties properties = new PasswordHashingProperties();
+		properties.setThreads(1);
+		properties.setQueueCapacity(1);
+		passwordEncoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), properties, meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		passwordEncoder.shutdown();
+	}
+
+	@Test
+	public void testEncode_shouldRunOnHashingPool() {
+		release.countDown();
+
+		assertEquals("password-hash-1:password", passwordEncoder.encode("password"));
+		assertEquals(1, meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count());
+	}
+
+	@Test
+	public void testEncode_whenQueueIsFull_shouldRejectImmediately() throws Exception {
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("first"));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("second"));
+		while(meterRegistry.get("executor.queued").gauge().value() < 1) {
+			Thread.onSpinWait();
+		}
+
+		assertThrows(PasswordHashingUnavailableException.class, () -> {
+			passwordEncoder.matches("third", "encoded");
+		});
+
+		release.countDown();
+		assertEquals("password-hash-1:first", running.get(5, TimeUnit.SECONDS));
+		assertEquals("password-hash-1:second", queued.get(5, TimeUnit.SECONDS));
+	}
+
+	private class BlockingPasswordEncoder implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return Thread.currentThread().getName() + ":" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encode(rawPassword).endsWith(encodedPassword);
+		}
+	}
+}
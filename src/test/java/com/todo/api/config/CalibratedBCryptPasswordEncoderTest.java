@@ -0,0 +1,43 @@
+package com.todo.api.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+	@Test
+	public void testUpgradeEncoding_whenCostDiffersInEitherDirection_shouldReturnTrue() {
+		CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+		assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+		assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")));
+		assertFalse(encoder.upgradeEncoding(encoder.encode("password")));
+	}
+
+	@Test
+	public void testUpgradeEncoding_whenNotBCrypt_shouldReturnFalse() {
+		CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+		assertFalse(encoder.upgradeEncoding(null));
+		assertFalse(encoder.upgradeEncoding("plain"));
+	}
+
+	@Test
+	public void testCalibrate_shouldStayWithinBounds() {
+		assertEquals(4, CalibratedBCryptPasswordEncoder.calibrate(Duration.ZERO, 4, 6).getStrength());
+
+		int strength = CalibratedBCryptPasswordEncoder.calibrate(Duration.ofSeconds(30), 4, 6).getStrength();
+		assertEquals(6, strength);
+	}
+
+	@Test
+	public void testCalibrate_shouldMatchOwnHashes() {
+		CalibratedBCryptPasswordEncoder encoder = CalibratedBCryptPasswordEncoder.calibrate(Duration.ofMillis(5), 4, 8);
+
+		assertTrue(encoder.matches("password", encoder.encode("password")));
+	}
+}
@@ -0,0 +1,113 @@
+package com.todo.api.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.todo.api.model.AuthenticatedUser;
+import com.todo.api.model.Role;
+import com.todo.api.model.Todo;
+import com.todo.api.model.User;
+import com.todo.api.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class JwtAuthenticationFilterTest {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private JwtService jwtService;
+	private JwtAuthenticationFilter filter;
+	private Statistics statistics;
+	private User user;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		user = entityManager.persist(User.builder()
+				.firstName("ahmet")
+				.lastName("ahmet")
+				.email("ahmet@gmail.com")
+				.password("encodedPassword")
+				.role(Role.USER)
+				.build());
+		entityManager.persist(Todo.builder().task("do something").active(true).user(user).build());
+		entityManager.persist(Todo.builder().task("do something else").active(true).user(user).build());
+		entityManager.flush();
+		entityManager.clear();
+
+		jwtService = JwtServiceTest.jwtService(JwtServiceTest.properties());
+		UserDetailsCache userDetailsCache = new UserDetailsCache(new CacheProperties(), new SimpleMeterRegistry());
+		ApplicationConfig applicationConfig = new ApplicationConfig(userRepository, userDetailsCache);
+		ObjectProvider<TokenRevocationCheck> revocationCheck = Mockito.mock(ObjectProvider.class);
+		filter = new JwtAuthenticationFilter(jwtService, applicationConfig.userDetailsService(),
+				JwtServiceTest.properties(), revocationCheck);
+
+		statistics = entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	public void testDoFilter_shouldIssueOnlyTheUserLookup() throws Exception {
+		String token = jwtService.generateToken(AuthenticatedUser.from(user));
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Authorization", "Bearer " + token);
+
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+		principal.toString();
+		principal.hashCode();
+		principal.equals(AuthenticatedUser.from(user));
+		principal.getAuthorities();
+
+		assertEquals(user.getId(), principal.getId());
+		assertSame(Role.USER.getAuthorities(), principal.getAuthorities());
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getCollectionLoadCount());
+	}
+
+	@Test
+	public void testDoFilter_withExpiredToken_shouldContinueUnauthenticated() throws Exception {
+		JwtProperties properties = JwtServiceTest.properties();
+		properties.setAccessTokenExpiration(Duration.ofMinutes(-1));
+		String token = JwtServiceTest.jwtService(properties).generateToken(AuthenticatedUser.from(user));
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Authorization", "Bearer " + token);
+		MockFilterChain filterChain = new MockFilterChain();
+
+		filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+		assertNotNull(filterChain.getRequest());
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+}
@@ -0,0 +1,218 @@
+package com.todo.api.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import com.todo.api.TestFixtures;
+import com.todo.api.model.Role;
+import com.todo.api.model.AuthenticatedUser;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtServiceTest {
+
+	private JwtService jwtService;
+	private AuthenticatedUser user;
+	private EmbeddedDatabase database;
+
+	@BeforeEach
+	void setUp() {
+		jwtService = jwtService(properties());
+		user = new AuthenticatedUser(1L, "ahmet@gmail.com", "password", Role.USER);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if(database != null) {
+			database.shutdown();
+		}
+	}
+
+	@Test
+	public void testVerify_shouldReturnSubjectAndExpiration() {
+		String token = jwtService.generateToken(user);
+
+		VerifiedToken verified = jwtService.verify(token);
+
+		assertEquals("ahmet@gmail.com", verified.getSubject());
+		assertNotNull(verified.getExpiration());
+		assertNotNull(verified.getIssuedAt());
+		assertFalse(verified.isExpired());
+		assertTrue(jwtService.isTokenValid(verified, user));
+	}
+
+	@Test
+	public void testGenerateToken_shouldSignUserIdAndRoleClaims() {
+		VerifiedToken verified = jwtService.verify(jwtService.generateToken(user));
+
+		assertEquals(1L, verified.getUserId());
+		assertEquals(Role.USER, verified.getRole());
+	}
+
+	@Test
+	public void testGenerateToken_shouldAssignUniqueTokenIds() {
+		VerifiedToken first = jwtService.verify(jwtService.generateToken(user));
+		VerifiedToken second = jwtService.verify(jwtService.generateToken(user));
+
+		assertNotNull(first.getId());
+		assertNotEquals(first.getId(), second.getId());
+	}
+
+	@Test
+	public void testGenerateToken_shouldExpireAfterAccessTokenLifetime() {
+		VerifiedToken verified = jwtService.verify(jwtService.generateToken(user));
+
+		long lifetime = verified.getExpiration().getTime() - verified.getIssuedAt().getTime();
+		assertEquals(properties().getAccessTokenExpiration().toMillis(), lifetime);
+	}
+
+	@Test
+	public void testIsTokenValid_whenSubjectDiffers_shouldReturnFalse() {
+		AuthenticatedUser anotherUser = new AuthenticatedUser(2L, "mehmet@gmail.com", "password", Role.USER);
+		VerifiedToken verified = jwtService.verify(jwtService.generateToken(user));
+
+		assertFalse(jwtService.isTokenValid(verified, anotherUser));
+	}
+
+	@Test
+	public void testVerify_withTamperedToken_shouldThrowJwtException() {
+		AuthenticatedUser anotherUser = new AuthenticatedUser(2L, "mehmet@gmail.com", "password", Role.USER);
+		String token = jwtService.generateToken(user);
+		String otherToken = jwtService.generateToken(anotherUser);
+		String tampered = otherToken.substring(0, otherToken.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+
+		assertThrows(JwtException.class, () -> {
+			jwtService.verify(tampered);
+		});
+	}
+
+	@Test
+	public void testVerify_shouldReuseCachedTokenAndRecordHits() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		JwtService cachingJwtService = new JwtService(properties(), meterRegistry,
+				new SigningKeyRing(properties(), Mockito.mock(JdbcTemplate.class)));
+		String token = cachingJwtService.generateToken(user);
+
+		VerifiedToken first = cachingJwtService.verify(token);
+		VerifiedToken second = cachingJwtService.verify(token);
+
+		assertSame(first, second);
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "verifiedTokens").tag("result", "hit")
+				.functionCounter().count());
+	}
+
+	@Test
+	public void testVerify_withCacheDisabled_shouldParseEveryTime() {
+		JwtProperties properties = properties();
+		properties.setTokenCacheSize(0);
+		JwtService uncachedJwtService = jwtService(properties);
+		String token = uncachedJwtService.generateToken(user);
+
+		assertNotSame(uncachedJwtService.verify(token), uncachedJwtService.verify(token));
+	}
+
+	@Test
+	public void testVerify_withExpiredToken_shouldNeverBeCached() {
+		JwtProperties properties = properties();
+		properties.setAccessTokenExpiration(Duration.ofMinutes(-1));
+		String token = jwtService(properties).generateToken(user);
+
+		assertThrows(ExpiredJwtException.class, () -> jwtService.verify(token));
+		assertThrows(ExpiredJwtException.class, () -> jwtService.verify(token));
+	}
+
+	@Test
+	public void testGenerateToken_withES256_shouldSignWithCurrentKeyId() {
+		JwtProperties properties = properties();
+		properties.setAlgorithm(JwtProperties.SigningAlgorithm.ES256);
+		SigningKeyRing keyRing = new SigningKeyRing(properties, new JdbcTemplate(database()));
+		JwtService es256JwtService = new JwtService(properties, new SimpleMeterRegistry(), keyRing);
+		String token = es256JwtService.generateToken(user);
+
+		JwsHeader<?> header = Jwts.parserBuilder()
+				.setSigningKey(keyRing.verificationKey(keyRing.current().kid()))
+				.build()
+				.parseClaimsJws(token)
+				.getHeader();
+
+		assertEquals("ES256", header.getAlgorithm());
+		assertEquals(keyRing.current().kid(), header.getKeyId());
+		assertEquals("ahmet@gmail.com", es256JwtService.verify(token).getSubject());
+	}
+
+	@Test
+	public void testVerify_withES256_shouldRejectTokenSignedWithSharedSecret() {
+		JwtProperties properties = properties();
+		properties.setAlgorithm(JwtProperties.SigningAlgorithm.ES256);
+		JwtService es256JwtService = new JwtService(properties, new SimpleMeterRegistry(),
+				new SigningKeyRing(properties, new JdbcTemplate(database())));
+		String forged = jwtService.generateToken(user);
+
+		assertThrows(UnsupportedJwtException.class, () -> es256JwtService.verify(forged));
+	}
+
+	@Test
+	public void testPublicKeys_shouldPublishEcJwksOnlyForES256() {
+		assertTrue(jwtService.publicKeys().isEmpty());
+
+		JwtProperties properties = properties();
+		properties.setAlgorithm(JwtProperties.SigningAlgorithm.ES256);
+		Map<String, Object> jwk = new JwtService(properties, new SimpleMeterRegistry(),
+				new SigningKeyRing(properties, new JdbcTemplate(database()))).publicKeys().get(0);
+
+		assertEquals("EC", jwk.get("kty"));
+		assertEquals("P-256", jwk.get("crv"));
+		assertEquals(43, ((String) jwk.get("x")).length());
+		assertEquals(43, ((String) jwk.get("y")).length());
+		assertFalse(jwk.containsKey("d"));
+	}
+
+	@Test
+	public void testConstructor_withoutSecretKey_shouldFail() {
+		JwtProperties properties = properties();
+		properties.setSecretKey(null);
+
+		assertThrows(IllegalStateException.class, () -> jwtService(properties));
+	}
+
+	@Test
+	public void testConstructor_withShortSecretKey_shouldFail() {
+		JwtProperties properties = properties();
+		properties.setSecretKey("c2hvcnQ=");
+
+		assertThrows(IllegalStateException.class, () -> jwtService(properties));
+	}
+
+	private DataSource database() {
+		database = SigningKeyRingTest.database();
+		return database;
+	}
+
+	// HS256 never reaches the key table
+	static JwtService jwtService(JwtProperties properties) {
+		return new JwtService(properties, new SimpleMeterRegistry(),
+				new SigningKeyRing(properties, Mockito.mock(JdbcTemplate.class)));
+	}
+
+	static JwtProperties properties() {
+		JwtProperties properties = new JwtProperties();
+		properties.setSecretKey(TestFixtures.SECRET_KEY);
+		return properties;
+	}
+}
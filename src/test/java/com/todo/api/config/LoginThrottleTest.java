@@ -0,0 +1,92 @@
+package com.todo.api.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.todo.api.exception.LoginThrottledException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginThrottleTest {
+
+	private LoginThrottleProperties properties;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		properties = new LoginThrottleProperties();
+		properties.setEmailCapacity(3);
+		properties.setEmailRefill(Duration.ofHours(1));
+		properties.setIpCapacity(5);
+		properties.setIpRefill(Duration.ofHours(1));
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	public void testCheck_shouldRejectEmailAfterCapacity() {
+		LoginThrottle loginThrottle = new LoginThrottle(properties, meterRegistry);
+
+		for(int i = 0; i < 3; i++) {
+			loginThrottle.check("ahmet@gmail.com", "10.0.0." + i);
+		}
+		LoginThrottledException ex = assertThrows(LoginThrottledException.class, () ->
+				loginThrottle.check("AHMET@gmail.com", "10.0.0.9"));
+
+		assertTrue(ex.getRetryAfterSeconds() > 0);
+		assertEquals(1.0, meterRegistry.get("login.throttled").tag("key", "email").counter().count());
+		loginThrottle.check("mehmet@gmail.com", "10.0.0.9");
+	}
+
+	@Test
+	public void testCheck_shouldRejectClientAddressAcrossEmails() {
+		LoginThrottle loginThrottle = new LoginThrottle(properties, meterRegistry);
+
+		for(int i = 0; i < 5; i++) {
+			loginThrottle.check("user" + i + "@gmail.com", "10.0.0.1");
+		}
+
+		assertThrows(LoginThrottledException.class, () -> loginThrottle.check("other@gmail.com", "10.0.0.1"));
+		assertEquals(1.0, meterRegistry.get("login.throttled").tag("key", "ip").counter().count());
+	}
+
+	@Test
+	public void testCheck_shouldRefillOverTime() throws Exception {
+		properties.setEmailCapacity(1);
+		properties.setEmailRefill(Duration.ofMillis(50));
+		LoginThrottle loginThrottle = new LoginThrottle(properties, meterRegistry);
+
+		loginThrottle.check("ahmet@gmail.com", null);
+		assertTrue(loginThrottle.tryAcquire("ahmet@gmail.com", null) > 0);
+		Thread.sleep(60);
+
+		assertEquals(0, loginThrottle.tryAcquire("ahmet@gmail.com", null));
+	}
+
+	@Test
+	public void testTryAcquire_underContention_shouldGrantExactlyCapacity() throws Exception {
+		properties.setEmailCapacity(100);
+		LoginThrottle loginThrottle = new LoginThrottle(properties, meterRegistry);
+		AtomicInteger granted = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		for(int i = 0; i < 1_000; i++) {
+			executor.execute(() -> {
+				if(loginThrottle.tryAcquire("ahmet@gmail.com", null) == 0) {
+					granted.incrementAndGet();
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(100, granted.get());
+	}
+}
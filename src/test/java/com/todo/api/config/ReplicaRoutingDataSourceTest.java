@@ -0,0 +1,134 @@
+package com.todo.api.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Two embedded H2 databases stand in for the primary and a replica; each has a marker row
+ * naming it, so a query through the routing data source shows where it was sent.
+ */
+class ReplicaRoutingDataSourceTest {
+
+	private EmbeddedDatabase primary;
+	private EmbeddedDatabase replica;
+	private ReplicaRoutingDataSource routingDataSource;
+	private ReplicaLagMonitor lagMonitor;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate writeTransaction;
+	private TransactionTemplate readOnlyTransaction;
+
+	@BeforeEach
+	void setUp() {
+		primary = database("primary");
+		replica = database("replica");
+		routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica), Duration.ofSeconds(5));
+		routingDataSource.afterPropertiesSet();
+		lagMonitor = new ReplicaLagMonitor(routingDataSource, Duration.ofSeconds(2), new SimpleMeterRegistry());
+
+		DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		writeTransaction = new TransactionTemplate(transactionManager);
+		readOnlyTransaction = new TransactionTemplate(transactionManager);
+		readOnlyTransaction.setReadOnly(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+		primary.shutdown();
+		replica.shutdown();
+	}
+
+	@Test
+	public void testReadOnlyTransaction_beforeFirstLagCheck_shouldUsePrimary() {
+		assertEquals("primary", readOnlyTransaction.execute(status -> marker()));
+	}
+
+	@Test
+	public void testReadOnlyTransaction_withHealthyReplica_shouldUseReplica() {
+		routingDataSource.setHealthy("replica-0", true);
+
+		assertEquals("replica", readOnlyTransaction.execute(status -> marker()));
+		assertEquals("primary", writeTransaction.execute(status -> marker()));
+	}
+
+	@Test
+	public void testLagMonitor_shouldSkipReplicaThatIsBehind() {
+		lagMonitor.check();
+
+		assertEquals("primary", readOnlyTransaction.execute(status -> marker()));
+
+		// replication catching up with the latest heartbeat
+		new JdbcTemplate(replica).update("update replication_heartbeat set beat = ? where id = 1", System.currentTimeMillis());
+		lagMonitor.check();
+
+		assertEquals("replica", readOnlyTransaction.execute(status -> marker()));
+	}
+
+	@Test
+	public void testReadOnlyTransaction_afterOwnWrite_shouldStickToPrimary() {
+		routingDataSource.setHealthy("replica-0", true);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken("ahmet@gmail.com", null, List.of()));
+
+		writeTransaction.executeWithoutResult(status -> jdbcTemplate.update("update marker set name = name"));
+
+		assertEquals("primary", readOnlyTransaction.execute(status -> marker()));
+
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken("mehmet@gmail.com", null, List.of()));
+
+		assertEquals("replica", readOnlyTransaction.execute(status -> marker()));
+	}
+
+	@Test
+	public void testWriteTransaction_rolledBack_shouldNotStickToPrimary() {
+		routingDataSource.setHealthy("replica-0", true);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken("ahmet@gmail.com", null, List.of()));
+
+		writeTransaction.executeWithoutResult(status -> {
+			jdbcTemplate.update("update marker set name = name");
+			status.setRollbackOnly();
+		});
+
+		assertEquals("replica", readOnlyTransaction.execute(status -> marker()));
+	}
+
+	private String marker() {
+		return jdbcTemplate.queryForObject("select name from marker", String.class);
+	}
+
+	private static EmbeddedDatabase database(String name) {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+		Flyway.configure().dataSource(database).locations("classpath:db/migration/h2").load().migrate();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+		jdbcTemplate.execute("create table marker (name varchar(16))");
+		jdbcTemplate.update("insert into marker (name) values (?)", name);
+		return database;
+	}
+}
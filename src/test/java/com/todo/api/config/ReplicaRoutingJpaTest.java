@@ -0,0 +1,122 @@
+package com.todo.api.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.todo.api.request.UserUpdateRequest;
+import com.todo.api.service.TokenRevocationService;
+import com.todo.api.service.UserService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The routing data source behind the real JPA stack: JpaTransactionManager prepares the
+ * connection before the transaction's read-only flag is bound, so this covers what the
+ * plain JDBC test in ReplicaRoutingDataSourceTest cannot. The primary and the replica hold
+ * different copies of the same user.
+ */
+@DataJpaTest(properties = {
+		"application.datasource.routing.enabled=true",
+		"spring.datasource.url=jdbc:h2:mem:routing-jpa-primary;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"application.datasource.routing.replicas[0].url=" + ReplicaRoutingJpaTest.REPLICA_URL })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ReplicaRoutingConfig.class, UserService.class, ReplicaRoutingJpaTest.Metrics.class })
+class ReplicaRoutingJpaTest {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:routing-jpa-replica;DB_CLOSE_DELAY=-1";
+
+	@MockBean
+	private UserDetailsCache userDetailsCache;
+
+	@MockBean
+	private PasswordEncoder passwordEncoder;
+
+	@MockBean
+	private TokenRevocationService tokenRevocationService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private ReplicaRoutingDataSource routingDataSource;
+
+	@Autowired
+	private ReplicaLagMonitor lagMonitor;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private JdbcTemplate primary;
+	private JdbcTemplate replica;
+
+	@BeforeEach
+	void setUp() {
+		Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+		primary = new JdbcTemplate(routingDataSource.getPrimary());
+		replica = new JdbcTemplate(routingDataSource.getReplicas().get("replica-0"));
+		primary.update("insert into _user (id, email, first_name, last_name, role, version) values (1, 'ahmet@gmail.com', 'primary', 'ahmet', 'USER', 0)");
+		// a copy that is behind the primary by a few writes
+		replica.update("insert into _user (id, email, first_name, last_name, role, version) values (1, 'ahmet@gmail.com', 'replica', 'ahmet', 'USER', 5)");
+		// replication looks caught up, so the lag check marks the replica healthy
+		replica.update("update replication_heartbeat set beat = ? where id = 1", Long.MAX_VALUE);
+		lagMonitor.check();
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@AfterEach
+	void tearDown() {
+		primary.update("delete from _user");
+		replica.update("delete from _user");
+		replica.update("update replication_heartbeat set beat = 0 where id = 1");
+	}
+
+	@Test
+	public void testReadOnlyServiceMethod_shouldReadFromReplica() {
+		assertEquals("replica", userService.findUserByEmail("ahmet@gmail.com").getFirstName());
+	}
+
+	@Test
+	public void testUpdateUser_shouldReadAndWriteOnPrimary() {
+		userService.updateUser(UserUpdateRequest.builder()
+				.userId(1L)
+				.firstName("updated")
+				.lastName("ahmet")
+				.email("ahmet@gmail.com")
+				.password("password")
+				.build());
+
+		assertEquals("updated", primary.queryForObject("select first_name from _user where id = 1", String.class));
+		assertEquals(1L, primary.queryForObject("select version from _user where id = 1", Long.class));
+		assertEquals("replica", replica.queryForObject("select first_name from _user where id = 1", String.class));
+	}
+
+	@TestConfiguration
+	static class Metrics {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.todo.api.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Two rings on one embedded database stand in for two nodes; the instants passed in walk
+ * through the rotation slots without waiting for the clock.
+ */
+class SigningKeyRingTest {
+
+	private static final Instant NOW = Instant.parse("2030-01-01T10:00:00Z");
+	private static final Duration INTERVAL = Duration.ofHours(24);
+
+	private EmbeddedDatabase database;
+	private JwtProperties properties;
+
+	@BeforeEach
+	void setUp() {
+		database = database();
+		properties = JwtServiceTest.properties();
+		properties.setAlgorithm(JwtProperties.SigningAlgorithm.ES256);
+		properties.setKeyRotationInterval(INTERVAL);
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	public void testCurrent_shouldBeSharedByNodesOnTheSameDatabase() {
+		SigningKeyRing first = ring();
+		SigningKeyRing second = ring();
+
+		SigningKeyRing.SigningKey key = first.current(NOW);
+
+		assertEquals(key.kid(), second.current(NOW).kid());
+		assertEquals(key.keyPair().getPublic(), second.verificationKey(key.kid(), NOW));
+	}
+
+	@Test
+	public void testPublicJwks_shouldPublishNextKeyOneIntervalBeforeItSigns() {
+		SigningKeyRing ring = ring();
+
+		List<String> published = kids(ring.publicJwks(NOW));
+		String next = ring.current(NOW.plus(INTERVAL)).kid();
+
+		assertTrue(published.contains(next));
+		assertNotEquals(ring.current(NOW).kid(), next);
+	}
+
+	@Test
+	public void testVerificationKey_shouldKeepRetiredKeyUntilItsTokensExpire() {
+		SigningKeyRing ring = ring();
+		String kid = ring.current(NOW).kid();
+
+		assertNotNull(ring.verificationKey(kid, NOW.plus(INTERVAL)));
+		assertNotNull(ring.verificationKey(kid, NOW.plus(INTERVAL).plus(properties.getAccessTokenExpiration().dividedBy(2))));
+		assertNull(ring.verificationKey(kid, NOW.plus(INTERVAL.multipliedBy(2))));
+		assertEquals(3, ring.publicJwks(NOW.plus(INTERVAL.multipliedBy(2))).size());
+	}
+
+	@Test
+	public void testPrivateKeys_shouldBeStoredEncrypted() {
+		SigningKeyRing.SigningKey key = ring().current(NOW);
+
+		byte[] stored = new JdbcTemplate(database).queryForObject(
+				"select private_key from signing_key where kid = ?", byte[].class, key.kid());
+
+		assertFalse(new String(stored, StandardCharsets.ISO_8859_1)
+				.contains(new String(key.keyPair().getPrivate().getEncoded(), StandardCharsets.ISO_8859_1)));
+	}
+
+	@Test
+	public void testConstructor_whenRotationIsNotLongerThanJwksCache_shouldFail() {
+		properties.setKeyRotationInterval(properties.getJwksCacheDuration());
+
+		assertThrows(IllegalStateException.class, this::ring);
+	}
+
+	@Test
+	public void testCurrent_withHS256_shouldNotTouchTheDatabase() {
+		JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+
+		SigningKeyRing ring = new SigningKeyRing(JwtServiceTest.properties(), jdbcTemplate);
+
+		assertNull(ring.current(NOW));
+		assertTrue(ring.publicJwks(NOW).isEmpty());
+		Mockito.verifyNoInteractions(jdbcTemplate);
+	}
+
+	private SigningKeyRing ring() {
+		return new SigningKeyRing(properties, new JdbcTemplate(database));
+	}
+
+	private static List<String> kids(List<Map<String, Object>> jwks) {
+		return jwks.stream().map(jwk -> (String) jwk.get("kid")).collect(Collectors.toList());
+	}
+
+	static EmbeddedDatabase database() {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+		Flyway.configure().dataSource(database).locations("classpath:db/migration/h2").load().migrate();
+		return database;
+	}
+}
@@ -0,0 +1,72 @@
+package com.todo.api.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.todo.api.model.AuthenticatedUser;
+import com.todo.api.model.Role;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserDetailsCacheTest {
+
+	private UserDetailsCache userDetailsCache;
+	private AtomicInteger loads;
+	private Function<String, AuthenticatedUser> loader;
+
+	@BeforeEach
+	void setUp() {
+		userDetailsCache = new UserDetailsCache(new CacheProperties(), new SimpleMeterRegistry());
+		loads = new AtomicInteger();
+		loader = email -> {
+			loads.incrementAndGet();
+			return new AuthenticatedUser(1L, email, "encodedPassword", Role.USER);
+		};
+	}
+
+	@Test
+	public void testGet_shouldLoadOnlyOnce() {
+		userDetailsCache.get("ahmet@gmail.com", loader);
+		userDetailsCache.get("ahmet@gmail.com", loader);
+
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void testInvalidate_shouldReloadUser() {
+		userDetailsCache.get("ahmet@gmail.com", loader);
+		userDetailsCache.invalidate("ahmet@gmail.com");
+		userDetailsCache.get("ahmet@gmail.com", loader);
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testInvalidateUser_shouldReloadOnlyThatUser() {
+		userDetailsCache.get("ahmet@gmail.com", loader);
+		userDetailsCache.get("mehmet@gmail.com", email -> new AuthenticatedUser(2L, email, "encodedPassword", Role.USER));
+		userDetailsCache.invalidateUser(1L);
+		userDetailsCache.get("ahmet@gmail.com", loader);
+		userDetailsCache.get("mehmet@gmail.com", loader);
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testGet_whenUserNotFound_shouldNotCacheMiss() {
+		Function<String, AuthenticatedUser> missingLoader = email -> {
+			loads.incrementAndGet();
+			throw new UsernameNotFoundException("User not Found");
+		};
+
+		assertThrows(UsernameNotFoundException.class, () -> userDetailsCache.get("ahmet@gmail.com", missingLoader));
+		assertThrows(UsernameNotFoundException.class, () -> userDetailsCache.get("ahmet@gmail.com", missingLoader));
+		assertEquals(2, loads.get());
+	}
+}
@@ -2,6 +2,9 @@ package com.todo.api.controller;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
+import java.util.Map;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -12,11 +15,16 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import com.todo.api.config.JwtProperties;
+import com.todo.api.config.LoginThrottle;
 import com.todo.api.exception.CustomBadCredentialsException;
+import com.todo.api.exception.InvalidRefreshTokenException;
+import com.todo.api.exception.LoginThrottledException;
 import com.todo.api.exception.NotUniqueEmailException;
 import com.todo.api.exception.UserNotFoundException;
 import com.todo.api.model.Role;
 import com.todo.api.request.AuthenticationRequest;
+import com.todo.api.request.RefreshTokenRequest;
 import com.todo.api.request.RegisterRequest;
 import com.todo.api.response.AuthenticationResponse;
 import com.todo.api.service.AuthenticationService;
@@ -26,12 +34,14 @@ class AuthenticationControllerTest {
 
 	private MockMvc mockMvc;
 	private AuthenticationService authenticationService;
+	private LoginThrottle loginThrottle;
 	private AuthenticationController authenticationController;
 	
 	@BeforeEach
 	void setUp() {
 		authenticationService = Mockito.mock(AuthenticationService.class);
-		authenticationController = new AuthenticationController(authenticationService);
+		loginThrottle = Mockito.mock(LoginThrottle.class);
+		authenticationController = new AuthenticationController(authenticationService, loginThrottle, new JwtProperties());
 		mockMvc = MockMvcBuilders.standaloneSetup(authenticationController).build();
 
 	}
@@ -114,6 +124,80 @@ class AuthenticationControllerTest {
         Mockito.verify(authenticationService).authenticate(request);
 	}
 	
+	@Test
+	public void testAuthenticate_whenThrottled_shouldReturnTooManyRequests() throws Exception{
+		AuthenticationRequest request = AuthenticationRequest.builder()
+				.email("ahmet@gmail.com")
+				.password("password")
+				.build();
+		
+		Mockito.doThrow(new LoginThrottledException("Too many login attempts.", 60))
+				.when(loginThrottle).check(Mockito.eq("ahmet@gmail.com"), Mockito.any());
+		
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/auth/authenticate")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(request)))
+				.andExpect(MockMvcResultMatchers.status().isTooManyRequests());
+		
+		Mockito.verifyNoInteractions(authenticationService);
+	}
+	
+	@Test
+	public void testRefresh() throws Exception{
+		RefreshTokenRequest request = new RefreshTokenRequest("refreshToken");
+		
+		AuthenticationResponse response = AuthenticationResponse.builder()
+				.token("jwtToken")
+				.refreshToken("newRefreshToken")
+				.userId(1L)
+				.build();
+		
+		Mockito.when(authenticationService.refresh(request)).thenReturn(response);
+		
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/auth/refresh")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(request)))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.token").value(response.getToken()))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.refreshToken").value(response.getRefreshToken()));
+	}
+	
+	@Test
+	public void testRefresh_withInvalidToken_shouldReturnUnauthorized() throws Exception{
+		RefreshTokenRequest request = new RefreshTokenRequest("refreshToken");
+		
+		Mockito.when(authenticationService.refresh(request)).thenThrow(new InvalidRefreshTokenException("Invalid refresh token."));
+		
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/auth/refresh")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(request)))
+				.andExpect(MockMvcResultMatchers.status().isUnauthorized());
+	}
+	
+	@Test
+	public void testJwks() throws Exception{
+		Map<String, Object> jwk = Map.of("kty", "EC", "kid", "key-1");
+		Mockito.when(authenticationService.jwks()).thenReturn(Map.of("keys", List.of(jwk)));
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/auth/jwks"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string("Cache-Control", "max-age=300, public"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.keys[0].kid").value("key-1"));
+	}
+	
+	@Test
+	public void testLogout() throws Exception{
+		RefreshTokenRequest request = new RefreshTokenRequest("refreshToken");
+		
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/auth/logout")
+				.header("Authorization", "Bearer jwtToken")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(request)))
+				.andExpect(MockMvcResultMatchers.status().isNoContent());
+		
+		Mockito.verify(authenticationService).logout("jwtToken", request);
+	}
+	
 	@Test
 	public void testAuthenticate_whenUserDoesNotExist_shouldReturnUserNotFoundException() throws Exception{
 		AuthenticationRequest request = AuthenticationRequest.builder()
@@ -1,28 +1,44 @@
 package com.todo.api.controller;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doThrow;
 
+import java.io.ByteArrayInputStream;
+
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import com.todo.api.exception.BatchPartiallyCreatedException;
+import com.todo.api.exception.GeneralExceptionAdvisor;
+import com.todo.api.exception.InvalidCursorException;
 import com.todo.api.exception.TodoNotFoundException;
 import com.todo.api.exception.UserNotFoundException;
 import com.todo.api.model.Role;
 import com.todo.api.model.Todo;
 import com.todo.api.model.User;
+import com.todo.api.request.TodoBatchRequest;
+import com.todo.api.request.TodoBulkUpdateRequest;
+import com.todo.api.request.TodoIdsRequest;
 import com.todo.api.request.TodoRequest;
 import com.todo.api.request.TodoUpdateRequest;
+import com.todo.api.response.EncodedTodoList;
+import com.todo.api.response.TodoBulkResponse;
+import com.todo.api.response.TodoPageResponse;
 import com.todo.api.response.TodoResponse;
 import com.todo.api.service.TodoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -66,7 +82,8 @@ class TodoControllerTest {
 		List<Todo> todos  = List.of(todo1,todo2);
 		List<TodoResponse> expectedResponse = todos.stream().map(todo ->new TodoResponse(todo)).collect(Collectors.toList());
 		
-		Mockito.when(todoService.getAllTodos(user.getId())).thenReturn(expectedResponse);
+		Mockito.when(todoService.getAllTodosEncoded(user.getId()))
+				.thenReturn(EncodedTodoList.of(7L, new ObjectMapper().writeValueAsBytes(expectedResponse), Integer.MAX_VALUE, false));
 		
 		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/{userId}", user.getId()))
         .andExpect(MockMvcResultMatchers.status().isOk())
@@ -78,19 +95,182 @@ class TodoControllerTest {
         .andExpect(MockMvcResultMatchers.jsonPath("$[0].active").value(todo1.isActive()))
         .andExpect(MockMvcResultMatchers.jsonPath("$[1].active").value(todo2.isActive()))
         .andExpect(MockMvcResultMatchers.jsonPath("$[0].userId").value(user.getId().intValue()))
-        .andExpect(MockMvcResultMatchers.jsonPath("$[1].userId").value(user.getId().intValue()));
+        .andExpect(MockMvcResultMatchers.jsonPath("$[1].userId").value(user.getId().intValue()))
+        .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.LINK));
 	}
 	
 	@Test
 	public void testGetAllTodos_whenUserDoesNotExist_shouldReturnUserNotFoundException() throws Exception{
 		Long userId = 1L;
 		
-		Mockito.when(todoService.getAllTodos(userId)).thenThrow(new UserNotFoundException("User Not Found!"));
+		Mockito.when(todoService.getAllTodosEncoded(userId)).thenThrow(new UserNotFoundException("User Not Found!"));
 		
 		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/{userId}",userId))
 			.andExpect(MockMvcResultMatchers.status().isNotFound());
 	}
 	
+	@Test
+	public void testGetAllTodos_whenClientAcceptsGzip_shouldWriteCompressedBytes() throws Exception{
+		List<TodoResponse> todos = List.of(new TodoResponse(1L, "do something", true, 1L));
+		byte[] json = new ObjectMapper().writeValueAsBytes(todos);
+		
+		Mockito.when(todoService.getAllTodosEncoded(1L)).thenReturn(EncodedTodoList.of(7L, json, 0, false));
+		
+		byte[] body = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/{userId}", 1L)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+			.andReturn().getResponse().getContentAsByteArray();
+		
+		try(GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			assertArrayEquals(json, in.readAllBytes());
+		}
+	}
+	
+	@Test
+	public void testGetAllTodos_whenClientRefusesGzip_shouldWriteIdentityBytes() throws Exception{
+		byte[] json = new ObjectMapper().writeValueAsBytes(List.of(new TodoResponse(1L, "do something", true, 1L)));
+		
+		Mockito.when(todoService.getAllTodosEncoded(1L)).thenReturn(EncodedTodoList.of(7L, json, 0, false));
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/{userId}", 1L)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andExpect(MockMvcResultMatchers.content().bytes(json));
+	}
+	
+	@Test
+	public void testAcceptsGzip_shouldHonourQualityValues() {
+		assertTrue(TodoController.acceptsGzip("gzip, deflate"));
+		assertTrue(TodoController.acceptsGzip("deflate, gzip;q=0.5"));
+		assertTrue(TodoController.acceptsGzip("*"));
+		assertFalse(TodoController.acceptsGzip("gzip;q=0"));
+		assertFalse(TodoController.acceptsGzip("gzip; q=0.0, *"));
+		assertFalse(TodoController.acceptsGzip("*;q=0"));
+		assertFalse(TodoController.acceptsGzip("deflate, br"));
+		assertFalse(TodoController.acceptsGzip(null));
+	}
+	
+	@Test
+	public void testGetAllTodos_shouldTagResponseWithEncoding() throws Exception{
+		byte[] json = new ObjectMapper().writeValueAsBytes(List.of(new TodoResponse(1L, "do something", true, 1L)));
+		
+		Mockito.when(todoService.getTodoListVersion(1L)).thenReturn(7L);
+		Mockito.when(todoService.getAllTodosEncoded(1L)).thenReturn(EncodedTodoList.of(7L, json, 0, false));
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/{userId}", 1L))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"todos-7\""));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/{userId}", 1L)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"todos-7-gzip\""));
+	}
+	
+	@Test
+	public void testGetAllTodos_whenETagMatches_shouldReturnNotModifiedWithoutLoading() throws Exception{
+		Mockito.when(todoService.getTodoListVersion(1L)).thenReturn(7L);
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/{userId}", 1L)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"todos-6\", W/\"todos-7-gzip\""))
+			.andExpect(MockMvcResultMatchers.status().isNotModified())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"todos-7-gzip\""))
+			.andExpect(MockMvcResultMatchers.content().bytes(new byte[0]));
+		
+		Mockito.verify(todoService, Mockito.never()).getAllTodosEncoded(1L);
+	}
+	
+	@Test
+	public void testGetAllTodos_whenIfNoneMatchIsWildcard_shouldReturnNotModified() throws Exception{
+		Mockito.when(todoService.getTodoListVersion(1L)).thenReturn(7L);
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/{userId}", 1L)
+				.header(HttpHeaders.IF_NONE_MATCH, "*"))
+			.andExpect(MockMvcResultMatchers.status().isNotModified())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"todos-7\""));
+		
+		Mockito.verify(todoService, Mockito.never()).getAllTodosEncoded(1L);
+	}
+	
+	@Test
+	public void testGetAllTodos_whenListWasCut_shouldLinkNextPage() throws Exception{
+		byte[] json = new ObjectMapper().writeValueAsBytes(List.of(new TodoResponse(1L, "do something", true, 1L)));
+		Mockito.when(todoService.getTodoListVersion(1L)).thenReturn(7L);
+		Mockito.when(todoService.getAllTodosEncoded(1L)).thenReturn(EncodedTodoList.of(7L, "MTAwMA", json, Integer.MAX_VALUE, false));
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/{userId}", 1L))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LINK, "<http://localhost/api/v1/todo/1/page?cursor=MTAwMA>; rel=\"next\""));
+	}
+	
+	@Test
+	public void testGetTodosByActive_whenListWasCut_shouldLinkNextPageWithFilter() throws Exception{
+		byte[] json = new ObjectMapper().writeValueAsBytes(List.of(new TodoResponse(1L, "do something", true, 1L)));
+		Mockito.when(todoService.getTodoListVersion(1L)).thenReturn(7L);
+		Mockito.when(todoService.findTodosByActiveEncoded(true, 1L)).thenReturn(EncodedTodoList.of(7L, "MTAwMA", json, Integer.MAX_VALUE, false));
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/active/{userId}/{active}", 1L, true))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LINK, "<http://localhost/api/v1/todo/1/page?cursor=MTAwMA&active=true>; rel=\"next\""));
+	}
+	
+	@Test
+	public void testGetAllTodos_whenIfNoneMatchIsWildcardAndUserDoesNotExist_shouldReturnNotFound() throws Exception{
+		Mockito.when(todoService.getTodoListVersion(1L)).thenThrow(new UserNotFoundException("User Not Found!"));
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/{userId}", 1L)
+				.header(HttpHeaders.IF_NONE_MATCH, "*"))
+			.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+	
+	@Test
+	public void testGetTodosByActive_whenETagIsStale_shouldReturnList() throws Exception{
+		byte[] json = new ObjectMapper().writeValueAsBytes(List.of(new TodoResponse(1L, "do something", true, 1L)));
+		
+		Mockito.when(todoService.getTodoListVersion(1L)).thenReturn(8L);
+		Mockito.when(todoService.findTodosByActiveEncoded(true, 1L)).thenReturn(EncodedTodoList.of(8L, json, 0, false));
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/active/{userId}/{active}", 1L, true)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"todos-7\""))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"todos-8\""))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(1));
+	}
+	
+	@Test
+	public void testGetTodoPage() throws Exception{
+		TodoPageResponse page = TodoPageResponse.builder()
+				.items(List.of(TodoResponse.builder().id(1L).task("do something").active(true).userId(1L).build()))
+				.next("Mg")
+				.build();
+		
+		Mockito.when(todoService.getTodoPage(1L, true, "MQ", 1)).thenReturn(page);
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/{userId}/page", 1L)
+				.param("active", "true")
+				.param("cursor", "MQ")
+				.param("limit", "1"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.items", Matchers.iterableWithSize(1)))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.items[0].id").value(1))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.next").value("Mg"));
+	}
+	
+	@Test
+	public void testGetTodoPage_withInvalidCursor_shouldReturnBadRequest() throws Exception{
+		Mockito.when(todoService.getTodoPage(1L, null, "bad", null)).thenThrow(new InvalidCursorException("Invalid cursor."));
+		// with the application's advice, whose catch-all handler would otherwise answer 500
+		MockMvc adviceMockMvc = MockMvcBuilders.standaloneSetup(todoController)
+				.setControllerAdvice(new GeneralExceptionAdvisor())
+				.build();
+		
+		adviceMockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/{userId}/page", 1L).param("cursor", "bad"))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string("Invalid cursor."));
+	}
+	
 	@Test
 	public void testGetTodosByActive() throws Exception{
 		User user = User.builder()
@@ -116,7 +296,8 @@ class TodoControllerTest {
 		List<Todo> todos  = List.of(todo1,todo2);
 		List<TodoResponse> expectedResponse = todos.stream().map(todo ->new TodoResponse(todo)).collect(Collectors.toList());
 		
-		Mockito.when(todoService.findTodosByActive(true, user.getId())).thenReturn(expectedResponse);
+		Mockito.when(todoService.findTodosByActiveEncoded(true, user.getId()))
+				.thenReturn(EncodedTodoList.of(7L, new ObjectMapper().writeValueAsBytes(expectedResponse), Integer.MAX_VALUE, true));
 		
 		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/active/{userId}/{active}",user.getId(),true))
 			.andExpect(MockMvcResultMatchers.status().isOk())
@@ -136,7 +317,7 @@ class TodoControllerTest {
 		Long userId=1L;
 		boolean active = true;
 		
-		Mockito.when(todoService.findTodosByActive(active, userId)).thenThrow(new UserNotFoundException("User Not Found!"));
+		Mockito.when(todoService.findTodosByActiveEncoded(active, userId)).thenThrow(new UserNotFoundException("User Not Found!"));
 		
 		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/active/{userId}/{active}",userId, active))
 			.andExpect(MockMvcResultMatchers.status().isNotFound());
@@ -190,6 +371,109 @@ class TodoControllerTest {
 			
 	}
 	
+	@Test
+	public void testCreateTodos() throws Exception {
+		TodoBatchRequest request = new TodoBatchRequest(List.of(
+				TodoRequest.builder().task("do something").active(true).userId(2L).build(),
+				TodoRequest.builder().task("do something else").active(false).userId(2L).build()));
+		List<TodoResponse> response = List.of(
+				new TodoResponse(1L, "do something", true, 2L),
+				new TodoResponse(2L, "do something else", false, 2L));
+		
+		Mockito.when(todoService.createTodos(request)).thenReturn(response);
+		
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/todo/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(request)))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.iterableWithSize(2)))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[1].id").value(2));
+	}
+	
+	@Test
+	public void testCreateTodos_whenPartiallyCreated_shouldReturnCreatedTodos() throws Exception {
+		TodoBatchRequest request = new TodoBatchRequest(List.of(
+				TodoRequest.builder().task("do something").active(true).userId(2L).build(),
+				TodoRequest.builder().task("do something else").active(false).userId(2L).build()));
+		
+		Mockito.when(todoService.createTodos(request)).thenThrow(new BatchPartiallyCreatedException(
+				"Only the first 1 todos were created.", List.of(new TodoResponse(1L, "do something", true, 2L)), null));
+		MockMvc adviceMockMvc = MockMvcBuilders.standaloneSetup(todoController)
+				.setControllerAdvice(new GeneralExceptionAdvisor())
+				.build();
+		
+		adviceMockMvc.perform(MockMvcRequestBuilders.post("/api/v1/todo/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(request)))
+				.andExpect(MockMvcResultMatchers.status().isInternalServerError())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.created", Matchers.iterableWithSize(1)))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.created[0].id").value(1));
+	}
+	
+	@Test
+	public void testCreateTodos_withEmptyBatch_shouldReturnBadRequest() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/todo/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"todos\":[]}"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verifyNoInteractions(todoService);
+	}
+	
+	@Test
+	public void testUpdateActive() throws Exception {
+		TodoBulkUpdateRequest request = new TodoBulkUpdateRequest(new long[] {1L, 2L}, true);
+		
+		Mockito.when(todoService.updateActive(1L, request)).thenReturn(new TodoBulkResponse(2));
+		
+		mockMvc.perform(MockMvcRequestBuilders.put("/api/v1/todo/{userId}/active", 1L)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(request)))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.affected").value(2));
+	}
+	
+	@Test
+	public void testUpdateActive_withoutIds_shouldReturnBadRequest() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.put("/api/v1/todo/{userId}/active", 1L)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"ids\":[],\"active\":true}"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verifyNoInteractions(todoService);
+	}
+	
+	@Test
+	public void testMarkAllDone() throws Exception {
+		Mockito.when(todoService.markAllDone(1L)).thenReturn(new TodoBulkResponse(3));
+		
+		mockMvc.perform(MockMvcRequestBuilders.put("/api/v1/todo/{userId}/done", 1L))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.affected").value(3));
+	}
+	
+	@Test
+	public void testDeleteTodos() throws Exception {
+		TodoIdsRequest request = new TodoIdsRequest(new long[] {1L, 2L});
+		
+		Mockito.when(todoService.deleteTodos(1L, request)).thenReturn(new TodoBulkResponse(1));
+		
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/todo/{userId}/delete", 1L)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(request)))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.affected").value(1));
+	}
+	
+	@Test
+	public void testDeleteCompleted() throws Exception {
+		Mockito.when(todoService.deleteCompleted(1L)).thenReturn(new TodoBulkResponse(2));
+		
+		mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/todo/{userId}/completed", 1L))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.affected").value(2));
+	}
+	
 	@Test
 	public void testCreateTodo_whenUserDoesNotExist_shouldReturnUserNotFoundException() throws Exception{
 		TodoRequest request = TodoRequest.builder()
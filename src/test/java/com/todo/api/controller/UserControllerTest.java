@@ -11,8 +11,10 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
@@ -21,6 +23,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.todo.api.exception.NotUniqueEmailException;
 import com.todo.api.exception.UserNotFoundException;
@@ -69,7 +72,7 @@ class UserControllerTest {
 		
 		Mockito.when(userService.getAllUsers()).thenReturn(userList);
 		
-		ResponseEntity<List<UserResponse>> response = userController.getAllUsers();
+		ResponseEntity<List<UserResponse>> response = userController.getAllUsers(new ServletWebRequest(new MockHttpServletRequest()));
 		
 		assertEquals(ResponseEntity.ok().build().getStatusCode(), response.getStatusCode());
 		assertIterableEquals(userList, response.getBody());	
@@ -90,12 +93,48 @@ class UserControllerTest {
 		
 		Mockito.when(userService.findUserByEmail(email)).thenReturn(user);
 		
-		ResponseEntity<UserResponse> response = userController.findUserByEmail(email);
+		ResponseEntity<UserResponse> response = userController.findUserByEmail(email, new ServletWebRequest(new MockHttpServletRequest()));
 		
 		assertEquals(ResponseEntity.ok().build().getStatusCode(), response.getStatusCode());
 		assertEquals(user, response.getBody());
 	}
 	
+	@Test
+	public void testGetAllUsers_whenVersionsDiffer_shouldReturnDifferentETags() {
+		Mockito.when(userService.getAllUsers())
+			.thenReturn(List.of(UserResponse.builder().id(1L).version(31L).build()))
+			.thenReturn(List.of(UserResponse.builder().id(2L).version(0L).build()));
+		
+		String first = userController.getAllUsers(new ServletWebRequest(new MockHttpServletRequest())).getHeaders().getETag();
+		String second = userController.getAllUsers(new ServletWebRequest(new MockHttpServletRequest())).getHeaders().getETag();
+		
+		assertNotEquals(first, second);
+	}
+	
+	@Test
+	public void testGetAllUsers_whenETagMatches_shouldReturnNotModified() throws Exception {
+		Mockito.when(userService.getAllUsers()).thenReturn(List.of(UserResponse.builder().id(1L).version(3L).build()));
+		String etag = userController.getAllUsers(new ServletWebRequest(new MockHttpServletRequest())).getHeaders().getETag();
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/user")
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(MockMvcResultMatchers.status().isNotModified());
+	}
+	
+	@Test
+	public void testFindUserByEmail_whenETagMatches_shouldReturnNotModified() throws Exception {
+		String email = "ahmet@gmail.com";
+		UserResponse user = UserResponse.builder().id(1L).email(email).role(Role.USER).version(3L).build();
+		
+		Mockito.when(userService.findUserByEmail(email)).thenReturn(user);
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/user/{email}", email)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"user-1-3\""))
+			.andExpect(MockMvcResultMatchers.status().isNotModified())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"user-1-3\""))
+			.andExpect(MockMvcResultMatchers.content().string(""));
+	}
+	
 	@Test
 	public void findUserByEmail_UserNotFound() {
 	    String nonExistingEmail = "nonexistingemail@example.com";
@@ -103,7 +142,7 @@ class UserControllerTest {
 	    Mockito.when(userService.findUserByEmail(nonExistingEmail)).thenThrow(new UserNotFoundException("User Not Found!"));
 
 	    UserNotFoundException exception = assertThrows(UserNotFoundException.class, () -> {
-	        userController.findUserByEmail(nonExistingEmail);
+	        userController.findUserByEmail(nonExistingEmail, new ServletWebRequest(new MockHttpServletRequest()));
 	    });
 	    assertEquals("User Not Found!", exception.getMessage());
 	}
@@ -0,0 +1,73 @@
+package com.todo.api.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Runs the Flyway migrations on the embedded database (Hibernate validates the result
+ * against the entities) and checks that the hot queries are planned on the new indexes.
+ */
+@DataJpaTest
+class SchemaMigrationTest {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	public void testMigrations_shouldBeApplied() {
+		Integer applied = jdbcTemplate.queryForObject(
+				"select count(*) from \"flyway_schema_history\" where \"success\" = true", Integer.class);
+
+		assertTrue(applied >= 2);
+	}
+
+	@Test
+	public void testFindByEmail_shouldUseEmailIndex() {
+		String plan = explain("select * from _user where email = 'ahmet@gmail.com'");
+
+		assertTrue(plan.contains("IDX_USER_EMAIL"), plan);
+	}
+
+	@Test
+	public void testFindByActiveAndUserId_shouldUseUserActiveIndex() {
+		// on empty tables H2 cannot tell the two user indexes apart; give it statistics to plan on
+		jdbcTemplate.update("insert into _user (id, email, first_name, last_name, role, version) values (1, 'ahmet@gmail.com', 'ahmet', 'ahmet', 'USER', 0)");
+		jdbcTemplate.update("insert into todo (task, active, user_id) select 'task', mod(x, 10) = 0, 1 from system_range(1, 1000)");
+		jdbcTemplate.execute("analyze table todo");
+		String plan = explain("select id, task, active, user_id from todo where user_id = 1 and active = true and id > 0 order by id");
+		// analyze commits, so the rows would outlive the test's rollback
+		jdbcTemplate.update("delete from todo where user_id = 1");
+		jdbcTemplate.update("delete from _user where id = 1");
+
+		assertTrue(plan.contains("IDX_TODO_USER_ACTIVE_ID"), plan);
+	}
+
+	@Test
+	public void testFindByUserId_shouldUseUserIndex() {
+		String plan = explain("select id, task, active, user_id from todo where user_id = 1 and id > 0 order by id");
+
+		assertTrue(plan.contains("IDX_TODO_USER"), plan);
+	}
+
+	@Test
+	public void testFindByTokenHash_shouldUseTokenHashIndex() {
+		String plan = explain("select * from refresh_token where token_hash = 'abc'");
+
+		assertTrue(plan.contains("IDX_REFRESH_TOKEN_HASH"), plan);
+	}
+
+	@Test
+	public void testDeleteExpiredRefreshTokens_shouldUseExpiryIndex() {
+		String plan = explain("select id from refresh_token where expires_at < current_timestamp");
+
+		assertTrue(plan.contains("IDX_REFRESH_TOKEN_EXPIRES_AT"), plan);
+	}
+
+	private String explain(String sql) {
+		return jdbcTemplate.queryForObject("explain " + sql, String.class).toUpperCase();
+	}
+}
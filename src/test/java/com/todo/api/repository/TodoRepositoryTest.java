@@ -0,0 +1,149 @@
+package com.todo.api.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import com.todo.api.model.Role;
+import com.todo.api.model.Todo;
+import com.todo.api.model.User;
+import com.todo.api.response.TodoResponse;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TodoRepositoryTest {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	private Statistics statistics;
+	private User user;
+	private User otherUser;
+
+	@BeforeEach
+	void setUp() {
+		user = entityManager.persist(User.builder()
+				.firstName("ahmet")
+				.lastName("ahmet")
+				.email("ahmet@gmail.com")
+				.password("encodedPassword")
+				.role(Role.USER)
+				.build());
+		otherUser = entityManager.persist(User.builder()
+				.firstName("mehmet")
+				.lastName("mehmet")
+				.email("mehmet@gmail.com")
+				.password("encodedPassword")
+				.role(Role.USER)
+				.build());
+		for(int i = 0; i < 5; i++) {
+			entityManager.persist(Todo.builder().task("task " + i).active(i % 2 == 0).user(user).build());
+			entityManager.persist(Todo.builder().task("other " + i).active(true).user(otherUser).build());
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	public void testFindResponsesByUserId_shouldNotLoadEntities() {
+		List<TodoResponse> todos = todoRepository.findResponsesByUserId(user.getId(), 0L, PageRequest.ofSize(100));
+
+		assertEquals(5, todos.size());
+		assertTrue(todos.stream().allMatch(todo -> user.getId().equals(todo.getUserId())));
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	public void testFindResponsesByUserId_shouldPageByKeyset() {
+		List<TodoResponse> first = todoRepository.findResponsesByUserId(user.getId(), 0L, PageRequest.ofSize(2));
+		List<TodoResponse> second = todoRepository.findResponsesByUserId(user.getId(), first.get(1).getId(), PageRequest.ofSize(2));
+		List<TodoResponse> third = todoRepository.findResponsesByUserId(user.getId(), second.get(1).getId(), PageRequest.ofSize(2));
+
+		assertEquals(2, first.size());
+		assertEquals(2, second.size());
+		assertEquals(1, third.size());
+		assertTrue(first.get(1).getId() < second.get(0).getId());
+		assertTrue(second.get(1).getId() < third.get(0).getId());
+	}
+
+	@Test
+	public void testInsertAll_shouldAssignIdsInOneBatch() {
+		List<Todo> todos = List.of(
+				Todo.builder().task("batch 1").active(true).user(User.builder().id(user.getId()).build()).build(),
+				Todo.builder().task("batch 2").active(false).user(User.builder().id(user.getId()).build()).build());
+
+		todoRepository.insertAll(todos);
+
+		assertNotNull(todos.get(0).getId());
+		assertTrue(todos.get(0).getId() < todos.get(1).getId());
+		List<TodoResponse> stored = todoRepository.findResponsesByUserId(user.getId(), todos.get(0).getId() - 1, PageRequest.ofSize(100));
+		assertEquals(List.of(new TodoResponse(todos.get(0)), new TodoResponse(todos.get(1))), stored);
+	}
+
+	@Test
+	public void testUpdateActive_shouldOnlyTouchTheUsersTodos() {
+		long[] ids = todoRepository.findAll().stream().mapToLong(Todo::getId).toArray();
+		statistics.clear();
+
+		int affected = todoRepository.updateActive(user.getId(), ids, false);
+
+		assertEquals(5, affected);
+		// the id-list update goes through JdbcTemplate, so the session neither loads nor flushes anything
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertTrue(todoRepository.findResponsesByActiveAndUserId(true, user.getId(), 0L, PageRequest.ofSize(100)).isEmpty());
+		assertEquals(5, todoRepository.findResponsesByActiveAndUserId(true, otherUser.getId(), 0L, PageRequest.ofSize(100)).size());
+	}
+
+	@Test
+	public void testDeleteByIds_shouldOnlyDeleteTheUsersTodos() {
+		long[] ids = todoRepository.findAll().stream().mapToLong(Todo::getId).toArray();
+
+		int affected = todoRepository.deleteByIds(otherUser.getId(), ids);
+
+		assertEquals(5, affected);
+		assertEquals(5, todoRepository.count());
+	}
+
+	@Test
+	public void testMarkAllDone_shouldReturnAffectedCount() {
+		int affected = todoRepository.markAllDone(user.getId());
+
+		assertEquals(3, affected);
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertTrue(todoRepository.findResponsesByActiveAndUserId(true, user.getId(), 0L, PageRequest.ofSize(100)).isEmpty());
+	}
+
+	@Test
+	public void testDeleteCompleted_shouldReturnAffectedCount() {
+		int affected = todoRepository.deleteCompleted(user.getId());
+
+		assertEquals(2, affected);
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(3, todoRepository.findResponsesByUserId(user.getId(), 0L, PageRequest.ofSize(100)).size());
+	}
+
+	@Test
+	public void testFindResponsesByActiveAndUserId_shouldFilterOnActive() {
+		List<TodoResponse> todos = todoRepository.findResponsesByActiveAndUserId(true, user.getId(), 0L, PageRequest.ofSize(100));
+
+		assertEquals(3, todos.size());
+		assertTrue(todos.stream().allMatch(TodoResponse::isActive));
+	}
+}
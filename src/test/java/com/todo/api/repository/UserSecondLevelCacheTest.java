@@ -0,0 +1,85 @@
+package com.todo.api.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.todo.api.model.Role;
+import com.todo.api.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Every repository call runs in its own transaction, as it would in the application; a
+ * read-write region does not serve an entry to the transaction that was open when it was put.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSecondLevelCacheTest {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private Statistics statistics;
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		userId = userRepository.save(User.builder()
+				.firstName("ahmet")
+				.lastName("ahmet")
+				.email("ahmet@gmail.com")
+				.password("encodedPassword")
+				.role(Role.USER)
+				.build()).getId();
+
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		sessionFactory.getCache().evictAll();
+		statistics = sessionFactory.getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		userRepository.deleteAll();
+	}
+
+	@Test
+	public void testFindById_shouldBeServedFromSecondLevelCache() {
+		userRepository.findById(userId);
+		userRepository.findById(userId);
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(1, statistics.getSecondLevelCacheHitCount());
+	}
+
+	@Test
+	public void testUpdatePassword_shouldInvalidateCachedUser() {
+		userRepository.findById(userId);
+
+		userRepository.updatePassword("ahmet@gmail.com", "newPassword");
+
+		assertEquals("newPassword", userRepository.findById(userId).get().getPassword());
+		assertEquals(0, statistics.getSecondLevelCacheHitCount());
+	}
+
+	@Test
+	public void testDeleteUserById_shouldInvalidateCachedUser() {
+		userRepository.findById(userId);
+
+		userRepository.deleteUserById(userId);
+
+		assertTrue(userRepository.findById(userId).isEmpty());
+	}
+}
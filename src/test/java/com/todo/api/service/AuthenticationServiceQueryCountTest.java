@@ -0,0 +1,72 @@
+package com.todo.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.todo.api.config.JwtService;
+import com.todo.api.exception.CustomBadCredentialsException;
+import com.todo.api.model.Role;
+import com.todo.api.model.User;
+import com.todo.api.repository.UserRepository;
+import com.todo.api.request.AuthenticationRequest;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AuthenticationServiceQueryCountTest {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private AuthenticationService authenticationService;
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+		entityManager.persist(User.builder()
+				.firstName("ahmet")
+				.lastName("ahmet")
+				.email("ahmet@gmail.com")
+				.password(passwordEncoder.encode("password"))
+				.role(Role.USER)
+				.build());
+		entityManager.flush();
+		entityManager.clear();
+
+		authenticationService = new AuthenticationService(userRepository, passwordEncoder,
+				Mockito.mock(JwtService.class), Mockito.mock(UserDetailsPasswordService.class),
+				Mockito.mock(RefreshTokenService.class), Mockito.mock(TokenRevocationService.class));
+
+		statistics = entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	public void testAuthenticate_shouldLoadTheUserOnce() {
+		authenticationService.authenticate(new AuthenticationRequest("ahmet@gmail.com", "password"));
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void testAuthenticate_withWrongPassword_shouldLoadTheUserOnce() {
+		assertThrows(CustomBadCredentialsException.class, () ->
+				authenticationService.authenticate(new AuthenticationRequest("ahmet@gmail.com", "wrong")));
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+}
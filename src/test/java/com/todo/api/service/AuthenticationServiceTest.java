@@ -8,28 +8,35 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.todo.api.config.JwtService;
+import com.todo.api.config.VerifiedToken;
 import com.todo.api.exception.CustomBadCredentialsException;
+import com.todo.api.exception.InvalidRefreshTokenException;
 import com.todo.api.exception.NotUniqueEmailException;
 import com.todo.api.exception.UserNotFoundException;
+import com.todo.api.model.AuthenticatedUser;
 import com.todo.api.model.Role;
 import com.todo.api.model.User;
 import com.todo.api.repository.UserRepository;
 import com.todo.api.request.AuthenticationRequest;
+import com.todo.api.request.RefreshTokenRequest;
 import com.todo.api.request.RegisterRequest;
 import com.todo.api.response.AuthenticationResponse;
 
+import io.jsonwebtoken.ExpiredJwtException;
+
 class AuthenticationServiceTest {
 
 	private UserRepository repository;
 	private PasswordEncoder passwordEncoder;
 	private JwtService jwtService;
-	private AuthenticationManager authenticationManager;
+	private UserDetailsPasswordService userDetailsPasswordService;
+	private RefreshTokenService refreshTokenService;
+	private TokenRevocationService tokenRevocationService;
 	private AuthenticationService authenticationService;
 
 	@BeforeEach
@@ -37,8 +44,11 @@ class AuthenticationServiceTest {
 		repository = Mockito.mock(UserRepository.class);
 	    passwordEncoder = Mockito.mock(PasswordEncoder.class);
 	    jwtService = Mockito.mock(JwtService.class);
-	    authenticationManager = Mockito.mock(AuthenticationManager.class);
-	    authenticationService = new AuthenticationService(repository, passwordEncoder, jwtService, authenticationManager);
+	    userDetailsPasswordService = Mockito.mock(UserDetailsPasswordService.class);
+	    refreshTokenService = Mockito.mock(RefreshTokenService.class);
+	    tokenRevocationService = Mockito.mock(TokenRevocationService.class);
+	    authenticationService = new AuthenticationService(repository, passwordEncoder, jwtService, userDetailsPasswordService,
+	    		refreshTokenService, tokenRevocationService);
 	}
 	
 	@Test
@@ -64,7 +74,7 @@ class AuthenticationServiceTest {
 		Mockito.when(repository.save(any(User.class))).thenReturn(user);
 		
 		String token = "jwtToken";
-		Mockito.when(jwtService.generateToken(user)).thenReturn(token);
+		Mockito.when(jwtService.generateToken(AuthenticatedUser.from(user))).thenReturn(token);
 		
 		AuthenticationResponse response = authenticationService.register(request);
 		
@@ -89,7 +99,8 @@ class AuthenticationServiceTest {
 	            .role(Role.USER)
 	            .build();
 		
-		Mockito.when(repository.findByEmail(request.getEmail())).thenReturn(Optional.of(existingUser));
+		Mockito.when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
+		Mockito.when(repository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("Duplicate entry " + existingUser.getEmail()));
 		
 		assertThrows(NotUniqueEmailException.class, () ->{
 			authenticationService.register(request);
@@ -113,14 +124,94 @@ class AuthenticationServiceTest {
 	            .build();
 
 	    Mockito.when(repository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
+	    Mockito.when(passwordEncoder.matches(request.getPassword(), user.getPassword())).thenReturn(true);
 
 	    String token = "jwtToken";
-	    Mockito.when(jwtService.generateToken(user)).thenReturn(token);
+	    Mockito.when(jwtService.generateToken(AuthenticatedUser.from(user))).thenReturn(token);
+	    Mockito.when(refreshTokenService.issue(user)).thenReturn("refreshToken");
+
+	    AuthenticationResponse response = authenticationService.authenticate(request);
+
+	    assertEquals(token, response.getToken());
+	    assertEquals("refreshToken", response.getRefreshToken());
+	    assertEquals(user.getId(), response.getUserId());
+	    Mockito.verify(repository, Mockito.times(1)).findByEmail(request.getEmail());
+	    Mockito.verifyNoInteractions(userDetailsPasswordService);
+	}
+	
+	@Test
+	public void testAuthenticate_whenHashNeedsUpgrade_shouldStoreNewHash() {
+	    AuthenticationRequest request = AuthenticationRequest.builder()
+	            .email("ahmet@gmail.com")
+	            .password("password")
+	            .build();
+
+	    User user = User.builder()
+	            .id(1L)
+	            .email(request.getEmail())
+	            .password("oldHash")
+	            .role(Role.USER)
+	            .build();
+
+	    Mockito.when(repository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
+	    Mockito.when(passwordEncoder.matches(request.getPassword(), "oldHash")).thenReturn(true);
+	    Mockito.when(passwordEncoder.upgradeEncoding("oldHash")).thenReturn(true);
+	    Mockito.when(passwordEncoder.encode(request.getPassword())).thenReturn("newHash");
 
 	    authenticationService.authenticate(request);
-	    Authentication auth = new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword());
-	    Mockito.when(authenticationManager.authenticate(auth)).thenReturn(auth);
-	    Mockito.verify(authenticationManager).authenticate(auth);
+
+	    Mockito.verify(userDetailsPasswordService).updatePassword(AuthenticatedUser.from(user), "newHash");
+	}
+	
+	@Test
+	public void testRefresh_shouldRotateRefreshToken() {
+		User user = User.builder()
+				.id(1L)
+				.email("ahmet@gmail.com")
+				.role(Role.USER)
+				.build();
+		
+		Mockito.when(refreshTokenService.consume("oldRefreshToken")).thenReturn(user);
+		Mockito.when(refreshTokenService.issue(user)).thenReturn("newRefreshToken");
+		Mockito.when(jwtService.generateToken(AuthenticatedUser.from(user))).thenReturn("jwtToken");
+		
+		AuthenticationResponse response = authenticationService.refresh(new RefreshTokenRequest("oldRefreshToken"));
+		
+		assertEquals("jwtToken", response.getToken());
+		assertEquals("newRefreshToken", response.getRefreshToken());
+		assertEquals(1L, response.getUserId());
+		Mockito.verifyNoInteractions(passwordEncoder, repository);
+	}
+	
+	@Test
+	public void testRefresh_withInvalidToken_shouldReturnInvalidRefreshTokenException() {
+		Mockito.when(refreshTokenService.consume("unknown")).thenThrow(new InvalidRefreshTokenException("Invalid refresh token."));
+		
+		assertThrows(InvalidRefreshTokenException.class, () -> {
+			authenticationService.refresh(new RefreshTokenRequest("unknown"));
+		});
+		Mockito.verify(refreshTokenService, Mockito.never()).issue(any(User.class));
+	}
+	
+	@Test
+	public void testLogout_shouldRevokeAccessTokenAndDeleteRefreshToken() {
+		VerifiedToken verified = Mockito.mock(VerifiedToken.class);
+		Mockito.when(jwtService.verify("jwtToken")).thenReturn(verified);
+		
+		authenticationService.logout("jwtToken", new RefreshTokenRequest("refreshToken"));
+		
+		Mockito.verify(tokenRevocationService).revoke(verified);
+		Mockito.verify(refreshTokenService).delete("refreshToken");
+	}
+	
+	@Test
+	public void testLogout_withExpiredAccessToken_shouldStillDeleteRefreshToken() {
+		Mockito.when(jwtService.verify("expired")).thenThrow(new ExpiredJwtException(null, null, "expired"));
+		
+		authenticationService.logout("expired", new RefreshTokenRequest("refreshToken"));
+		
+		Mockito.verifyNoInteractions(tokenRevocationService);
+		Mockito.verify(refreshTokenService).delete("refreshToken");
 	}
 	
 	@Test
@@ -144,7 +235,7 @@ class AuthenticationServiceTest {
 	            .build();
 		
 	    Mockito.when(repository.findByEmail(request.getEmail())).thenReturn(Optional.of(new User()));
-	    Mockito.when(authenticationManager.authenticate(Mockito.any(UsernamePasswordAuthenticationToken.class))).thenThrow(new CustomBadCredentialsException("Invalid email or password."));
+	    Mockito.when(passwordEncoder.matches(Mockito.eq(request.getPassword()), Mockito.any())).thenReturn(false);
 
 	    assertThrows(CustomBadCredentialsException.class, () ->{
 	    	authenticationService.authenticate(request);
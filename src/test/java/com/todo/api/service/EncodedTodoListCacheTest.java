@@ -0,0 +1,105 @@
+package com.todo.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.api.config.CacheProperties;
+import com.todo.api.response.EncodedTodoList;
+import com.todo.api.response.TodoPageResponse;
+import com.todo.api.response.TodoResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EncodedTodoListCacheTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final List<TodoResponse> todos = List.of(
+			new TodoResponse(1L, "Yemek yap", true, 1L),
+			new TodoResponse(2L, "Spor yap", false, 1L));
+
+	private AtomicInteger loads;
+	private Supplier<TodoPageResponse> loader;
+
+	@BeforeEach
+	void setUp() {
+		loads = new AtomicInteger();
+		loader = () -> {
+			loads.incrementAndGet();
+			return TodoPageResponse.builder().items(todos).build();
+		};
+	}
+
+	@Test
+	public void testGet_shouldEncodeOnlyOnce() {
+		EncodedTodoListCache cache = cache(1024, false);
+
+		EncodedTodoList first = cache.get(1L, 3L, null, loader);
+		EncodedTodoList second = cache.get(1L, 3L, null, loader);
+
+		assertSame(first, second);
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void testGet_atNewVersion_shouldEncodeAgain() {
+		EncodedTodoListCache cache = cache(1024, false);
+
+		cache.get(1L, 3L, null, loader);
+		EncodedTodoList encoded = cache.get(1L, 4L, null, loader);
+
+		assertEquals(2, loads.get());
+		assertEquals(4L, encoded.getVersion());
+	}
+
+	@Test
+	public void testGet_whenListWasCut_shouldKeepCursorOutOfJson() throws IOException {
+		EncodedTodoList encoded = cache(1024, false).get(1L, 3L, null, () -> TodoPageResponse.builder().items(todos).next("Mg").build());
+
+		assertEquals("Mg", encoded.getNext());
+		assertArrayEquals(objectMapper.writeValueAsBytes(todos), written(encoded, false));
+	}
+
+	@Test
+	public void testWriteTo_shouldWriteSerializedJson() throws IOException {
+		EncodedTodoList encoded = cache(1024, false).get(1L, 3L, null, loader);
+
+		assertArrayEquals(objectMapper.writeValueAsBytes(todos), written(encoded, false));
+		assertFalse(encoded.hasGzip());
+	}
+
+	@Test
+	public void testWriteTo_offHeapWithGzip_shouldRoundTrip() throws IOException {
+		EncodedTodoList encoded = cache(0, true).get(1L, 3L, null, loader);
+
+		assertTrue(encoded.hasGzip());
+		assertArrayEquals(objectMapper.writeValueAsBytes(todos), written(encoded, false));
+		try(GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(written(encoded, true)))) {
+			assertArrayEquals(objectMapper.writeValueAsBytes(todos), in.readAllBytes());
+		}
+	}
+
+	private EncodedTodoListCache cache(int gzipMinimumSize, boolean offHeap) {
+		CacheProperties properties = new CacheProperties();
+		properties.getEncodedTodoList().setGzipMinimumSize(gzipMinimumSize);
+		properties.getEncodedTodoList().setOffHeap(offHeap);
+		return new EncodedTodoListCache(objectMapper, properties, new SimpleMeterRegistry());
+	}
+
+	private static byte[] written(EncodedTodoList encoded, boolean compressed) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		encoded.writeTo(out, compressed);
+		assertEquals(encoded.length(compressed), out.size());
+		return out.toByteArray();
+	}
+}
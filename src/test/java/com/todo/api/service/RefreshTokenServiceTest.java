@@ -0,0 +1,104 @@
+package com.todo.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.todo.api.config.JwtProperties;
+import com.todo.api.exception.InvalidRefreshTokenException;
+import com.todo.api.model.RefreshToken;
+import com.todo.api.model.User;
+import com.todo.api.repository.RefreshTokenRepository;
+
+class RefreshTokenServiceTest {
+
+	private RefreshTokenRepository refreshTokenRepository;
+	private RefreshTokenService refreshTokenService;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		refreshTokenRepository = Mockito.mock(RefreshTokenRepository.class);
+		refreshTokenService = new RefreshTokenService(refreshTokenRepository, new JwtProperties());
+		user = User.builder().id(1L).email("ahmet@gmail.com").build();
+	}
+
+	@Test
+	public void testIssue_shouldStoreOnlyTheHash() {
+		String token = refreshTokenService.issue(user);
+
+		ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+		Mockito.verify(refreshTokenRepository).save(captor.capture());
+		assertEquals(RefreshTokenService.hash(token), captor.getValue().getTokenHash());
+		assertNotEquals(token, captor.getValue().getTokenHash());
+		assertTrue(captor.getValue().getExpiresAt().isAfter(Instant.now()));
+	}
+
+	@Test
+	public void testConsume_shouldDeleteTokenAndReturnUser() {
+		String token = "refreshToken";
+		String tokenHash = RefreshTokenService.hash(token);
+		Mockito.when(refreshTokenRepository.findByTokenHash(tokenHash))
+				.thenReturn(Optional.of(storedToken(tokenHash, Instant.now().plusSeconds(60))));
+		Mockito.when(refreshTokenRepository.deleteByTokenHash(tokenHash)).thenReturn(1);
+
+		assertSame(user, refreshTokenService.consume(token));
+		Mockito.verify(refreshTokenRepository).deleteByTokenHash(tokenHash);
+	}
+
+	@Test
+	public void testConsume_whenAlreadyRotated_shouldReturnInvalidRefreshTokenException() {
+		String tokenHash = RefreshTokenService.hash("refreshToken");
+		Mockito.when(refreshTokenRepository.findByTokenHash(tokenHash))
+				.thenReturn(Optional.of(storedToken(tokenHash, Instant.now().plusSeconds(60))));
+		Mockito.when(refreshTokenRepository.deleteByTokenHash(tokenHash)).thenReturn(0);
+
+		assertThrows(InvalidRefreshTokenException.class, () -> {
+			refreshTokenService.consume("refreshToken");
+		});
+	}
+
+	@Test
+	public void testConsume_whenExpired_shouldReturnInvalidRefreshTokenException() {
+		String tokenHash = RefreshTokenService.hash("refreshToken");
+		Mockito.when(refreshTokenRepository.findByTokenHash(tokenHash))
+				.thenReturn(Optional.of(storedToken(tokenHash, Instant.now().minusSeconds(60))));
+		Mockito.when(refreshTokenRepository.deleteByTokenHash(tokenHash)).thenReturn(1);
+
+		assertThrows(InvalidRefreshTokenException.class, () -> {
+			refreshTokenService.consume("refreshToken");
+		});
+		Mockito.verify(refreshTokenRepository).deleteByTokenHash(tokenHash);
+	}
+
+	@Test
+	public void testPurgeExpired_shouldDeleteTokensExpiredBeforeNow() {
+		Mockito.when(refreshTokenRepository.deleteExpired(any())).thenReturn(3);
+
+		assertEquals(3, refreshTokenService.purgeExpired());
+
+		ArgumentCaptor<Instant> captor = ArgumentCaptor.forClass(Instant.class);
+		Mockito.verify(refreshTokenRepository).deleteExpired(captor.capture());
+		assertFalse(captor.getValue().isAfter(Instant.now()));
+	}
+
+	@Test
+	public void testConsume_whenUnknown_shouldReturnInvalidRefreshTokenException() {
+		Mockito.when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+		assertThrows(InvalidRefreshTokenException.class, () -> {
+			refreshTokenService.consume("unknown");
+		});
+	}
+
+	private RefreshToken storedToken(String tokenHash, Instant expiresAt) {
+		return RefreshToken.builder().tokenHash(tokenHash).user(user).expiresAt(expiresAt).build();
+	}
+}
@@ -0,0 +1,112 @@
+package com.todo.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.todo.api.config.CacheProperties;
+import com.todo.api.response.TodoResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TodoListCacheTest {
+
+	private TodoListCache todoListCache;
+	private AtomicInteger loads;
+	private Supplier<List<TodoResponse>> loader;
+
+	@BeforeEach
+	void setUp() {
+		todoListCache = new TodoListCache(new CacheProperties(), new SimpleMeterRegistry());
+		loads = new AtomicInteger();
+		loader = () -> {
+			loads.incrementAndGet();
+			return List.of(new TodoResponse(1L, "Yemek yap", true, 1L));
+		};
+	}
+
+	@Test
+	public void testGet_shouldLoadOnlyOnce() {
+		todoListCache.get(1L, 3L, null, loader);
+		todoListCache.get(1L, 3L, null, loader);
+
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void testGet_shouldKeepFiltersApart() {
+		todoListCache.get(1L, 3L, null, loader);
+		todoListCache.get(1L, 3L, true, loader);
+		todoListCache.get(1L, 3L, false, loader);
+
+		assertEquals(3, loads.get());
+	}
+
+	@Test
+	public void testGet_atNewVersion_shouldOnlyReloadThatUser() {
+		todoListCache.get(1L, 3L, null, loader);
+		todoListCache.get(2L, 3L, null, loader);
+		todoListCache.get(1L, 4L, null, loader);
+		todoListCache.get(2L, 3L, null, loader);
+
+		assertEquals(3, loads.get());
+	}
+
+	@Test
+	public void testGet_concurrentMisses_shouldShareOneLoad() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Supplier<List<TodoResponse>> slowLoader = () -> {
+			loads.incrementAndGet();
+			loading.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return List.of();
+		};
+
+		CompletableFuture<List<TodoResponse>> first = CompletableFuture.supplyAsync(() -> todoListCache.get(1L, 3L, null, slowLoader));
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+		CompletableFuture<List<TodoResponse>> second = CompletableFuture.supplyAsync(() -> todoListCache.get(1L, 3L, null, slowLoader));
+		release.countDown();
+
+		assertEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void testGet_shouldLoadOnCallingThread() {
+		Thread caller = Thread.currentThread();
+		AtomicReference<Thread> loadedOn = new AtomicReference<>();
+
+		todoListCache.get(1L, 3L, null, () -> {
+			loadedOn.set(Thread.currentThread());
+			return List.of();
+		});
+
+		assertSame(caller, loadedOn.get());
+	}
+
+	@Test
+	public void testGet_whenLoaderFails_shouldNotCacheFailure() {
+		Supplier<List<TodoResponse>> failingLoader = () -> {
+			loads.incrementAndGet();
+			throw new IllegalStateException();
+		};
+
+		assertThrows(IllegalStateException.class, () -> todoListCache.get(1L, 3L, null, failingLoader));
+		assertThrows(IllegalStateException.class, () -> todoListCache.get(1L, 3L, null, failingLoader));
+		assertEquals(2, loads.get());
+	}
+}
@@ -0,0 +1,150 @@
+package com.todo.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.todo.api.TestFixtures;
+import com.todo.api.exception.TodoNotFoundException;
+import com.todo.api.exception.UserNotFoundException;
+import com.todo.api.model.Role;
+import com.todo.api.model.Todo;
+import com.todo.api.model.User;
+import com.todo.api.repository.TodoRepository;
+import com.todo.api.repository.UserRepository;
+import com.todo.api.request.TodoRequest;
+
+
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TodoServiceQueryCountTest {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TodoService todoService;
+	private Statistics statistics;
+	private User user;
+	private User userWithoutTodos;
+	private Todo todo;
+
+	@BeforeEach
+	void setUp() {
+		user = entityManager.persist(User.builder()
+				.firstName("ahmet")
+				.lastName("ahmet")
+				.email("ahmet@gmail.com")
+				.password("encodedPassword")
+				.role(Role.USER)
+				.build());
+		userWithoutTodos = entityManager.persist(User.builder()
+				.firstName("mehmet")
+				.lastName("mehmet")
+				.email("mehmet@gmail.com")
+				.password("encodedPassword")
+				.role(Role.USER)
+				.build());
+		todo = entityManager.persist(Todo.builder().task("Yemek yap").active(true).user(user).build());
+		entityManager.flush();
+		entityManager.clear();
+
+		todoService = todoService();
+		statistics = entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	public void testGetAllTodos_shouldReadVersionAndList() {
+		assertEquals(1, todoService.getAllTodos(user.getId()).size());
+
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void testGetAllTodos_whenCached_shouldOnlyReadVersion() {
+		todoService.getAllTodos(user.getId());
+		statistics.clear();
+
+		assertEquals(1, todoService.getAllTodos(user.getId()).size());
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void testGetAllTodos_whenUserHasNoTodos_shouldReadVersionAndList() {
+		assertTrue(todoService.getAllTodos(userWithoutTodos.getId()).isEmpty());
+
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void testGetAllTodos_whenUserDoesNotExist_shouldOnlyReadVersion() {
+		assertThrows(UserNotFoundException.class, () -> todoService.getAllTodos(-1L));
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void testGetAllTodos_afterWriteOnAnotherNode_shouldReload() {
+		TodoService otherNode = todoService();
+		todoService.getAllTodos(user.getId());
+
+		otherNode.createTodo(TodoRequest.builder().task("Spor yap").active(true).userId(user.getId()).build());
+
+		assertEquals(2, todoService.getAllTodos(user.getId()).size());
+	}
+
+	@Test
+	public void testFindTodosByActive_shouldReadVersionAndList() {
+		assertEquals(1, todoService.findTodosByActive(true, user.getId()).size());
+
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void testGetTodoPage_shouldRunOneStatement() {
+		assertEquals(1, todoService.getTodoPage(user.getId(), null, null, 10).getItems().size());
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void testDeleteTodo_shouldBumpVersionAndDelete() {
+		todoService.deleteTodo(todo.getId());
+
+		assertEquals(2, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertFalse(todoRepository.existsById(todo.getId()));
+	}
+
+	@Test
+	public void testDeleteTodo_whenTodoDoesNotExist_shouldRunOneStatement() {
+		assertThrows(TodoNotFoundException.class, () -> todoService.deleteTodo(-1L));
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	// a node of its own: same database, empty caches
+	private TodoService todoService() {
+		return TestFixtures.todoService(todoRepository, userRepository, new TransactionTemplate(transactionManager));
+	}
+}
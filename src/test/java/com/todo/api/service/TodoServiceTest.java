@@ -4,12 +4,22 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.todo.api.TestFixtures;
+import com.todo.api.exception.BatchPartiallyCreatedException;
+import com.todo.api.exception.InvalidCursorException;
 import com.todo.api.exception.TodoNotFoundException;
 import com.todo.api.exception.UserNotFoundException;
 import com.todo.api.model.Role;
@@ -17,10 +27,17 @@ import com.todo.api.model.Todo;
 import com.todo.api.model.User;
 import com.todo.api.repository.TodoRepository;
 import com.todo.api.repository.UserRepository;
+import com.todo.api.request.TodoBatchRequest;
+import com.todo.api.request.TodoBulkUpdateRequest;
+import com.todo.api.request.TodoIdsRequest;
 import com.todo.api.request.TodoRequest;
 import com.todo.api.request.TodoUpdateRequest;
+import com.todo.api.response.TodoBulkResponse;
+import com.todo.api.response.TodoPageResponse;
 import com.todo.api.response.TodoResponse;
 
+
+
 class TodoServiceTest {
 	
 	private TodoRepository todoRepository;
@@ -31,7 +48,15 @@ class TodoServiceTest {
 	void setUp() {
 		todoRepository = Mockito.mock(TodoRepository.class);
 		userRepository = Mockito.mock(UserRepository.class);
-		todoService = new TodoService(todoRepository, userRepository);
+		todoService = TestFixtures.todoService(todoRepository, userRepository,
+				new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)));
+		// user 1 exists; its list version behaves like the column
+		AtomicLong listVersion = new AtomicLong();
+		Mockito.when(todoRepository.findListVersion(1L)).thenAnswer(invocation -> Optional.of(listVersion.get()));
+		Mockito.when(todoRepository.incrementListVersion(1L)).thenAnswer(invocation -> {
+			listVersion.incrementAndGet();
+			return 1;
+		});
 	}
 	
 	@Test
@@ -57,26 +82,80 @@ class TodoServiceTest {
 				.user(user)
 				.build();
 		List<Todo> todos = List.of(todo1,todo2);
-		Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-		Mockito.when(todoRepository.findByUserId(1L)).thenReturn(todos);
-		
 		List<TodoResponse> expected = todos.stream().map(todo -> new TodoResponse(todo)).collect(Collectors.toList());
+		Mockito.when(todoRepository.findResponsesByUserId(Mockito.eq(1L), Mockito.eq(0L), Mockito.any(Pageable.class))).thenReturn(expected);
+
 		List<TodoResponse> result  = todoService.getAllTodos(1L);
 		
 		assertIterableEquals(expected, result);
 		
-		Mockito.verify(userRepository).findById(1L);
-		Mockito.verify(todoRepository).findByUserId(1L);
+		Mockito.verifyNoInteractions(userRepository);
+		Mockito.verify(todoRepository).findResponsesByUserId(Mockito.eq(1L), Mockito.eq(0L), Mockito.argThat(page -> page.getPageSize() == TodoService.LIST_LIMIT + 1));
+	}
+	
+	@Test
+	public void testGetAllTodosEncoded_whenOverListLimit_shouldCutAndKeepCursor() {
+		List<TodoResponse> rows = IntStream.rangeClosed(1, TodoService.LIST_LIMIT + 1)
+				.mapToObj(id -> new TodoResponse((long) id, "Yemek yap", true, 1L))
+				.collect(Collectors.toList());
+		Mockito.when(todoRepository.findResponsesByUserId(Mockito.eq(1L), Mockito.eq(0L), Mockito.any(Pageable.class))).thenReturn(rows);
+		
+		assertEquals(TodoService.LIST_LIMIT, todoService.getAllTodos(1L).size());
+		assertEquals(TodoService.encodeCursor((long) TodoService.LIST_LIMIT), todoService.getAllTodosEncoded(1L).getNext());
+	}
+	
+	@Test
+	public void testGetAllTodosEncoded_whenUnderListLimit_shouldHaveNoCursor() {
+		Mockito.when(todoRepository.findResponsesByUserId(Mockito.eq(1L), Mockito.eq(0L), Mockito.any(Pageable.class)))
+			.thenReturn(List.of(new TodoResponse(1L, "Yemek yap", true, 1L)));
+		
+		assertNull(todoService.getAllTodosEncoded(1L).getNext());
 	}
 	
 	@Test
 	public void testGetAllTodos_whenUserDoesNotExist_shouldReturnUserNotFoundException() {
-		Long userId =1L;
-		Mockito.when(userRepository.findById(userId)).thenReturn(Optional.empty());
+		Long userId =2L;
+		Mockito.when(todoRepository.findListVersion(userId)).thenReturn(Optional.empty());
 		
 		assertThrows(UserNotFoundException.class, () ->{
-			todoService.getAllTodos(1L);
+			todoService.getAllTodos(userId);
 		});
+		
+		Mockito.verify(todoRepository, Mockito.never()).findResponsesByUserId(Mockito.eq(userId), Mockito.anyLong(), Mockito.any(Pageable.class));
+	}
+	
+	@Test
+	public void testGetAllTodos_whenUserHasNoTodos_shouldReturnEmptyList() {
+		List<TodoResponse> result = todoService.getAllTodos(1L);
+		
+		assertTrue(result.isEmpty());
+		Mockito.verifyNoInteractions(userRepository);
+	}
+	
+	@Test
+	public void testGetAllTodos_shouldServeRepeatedCallsFromCache() {
+		List<TodoResponse> expected = List.of(new TodoResponse(1L, "Yemek yap", true, 1L));
+		Mockito.when(todoRepository.findResponsesByUserId(Mockito.eq(1L), Mockito.eq(0L), Mockito.any(Pageable.class))).thenReturn(expected);
+		
+		todoService.getAllTodos(1L);
+		List<TodoResponse> result = todoService.getAllTodos(1L);
+		
+		assertIterableEquals(expected, result);
+		Mockito.verify(todoRepository, Mockito.times(1)).findResponsesByUserId(Mockito.eq(1L), Mockito.eq(0L), Mockito.any(Pageable.class));
+	}
+	
+	@Test
+	public void testGetAllTodos_afterWrite_shouldReload() {
+		Todo todo = Todo.builder().id(1L).task("Yemek yap").active(true).user(User.builder().id(1L).build()).build();
+		Mockito.when(todoRepository.findResponsesByUserId(Mockito.eq(1L), Mockito.eq(0L), Mockito.any(Pageable.class)))
+				.thenReturn(List.of(new TodoResponse(todo)));
+		Mockito.when(todoRepository.findById(1L)).thenReturn(Optional.of(todo));
+		
+		todoService.getAllTodos(1L);
+		todoService.updateTodo(TodoUpdateRequest.builder().todoId(1L).task("Spor yap").active(false).build());
+		todoService.getAllTodos(1L);
+		
+		Mockito.verify(todoRepository, Mockito.times(2)).findResponsesByUserId(Mockito.eq(1L), Mockito.eq(0L), Mockito.any(Pageable.class));
 	}
 	
 	@Test
@@ -96,20 +175,25 @@ class TodoServiceTest {
 				.user(user)
 				.build();
 		
-		Mockito.when(todoRepository.findById(1L)).thenReturn(Optional.of(todo1));
+		Mockito.when(todoRepository.incrementListVersionOfTodo(todo1.getId())).thenReturn(1);
+		Mockito.when(todoRepository.deleteTodoById(todo1.getId())).thenReturn(1);
 		todoService.deleteTodo(1L);
 		
-		Mockito.verify(todoRepository).deleteById(1L);
+		Mockito.verify(todoRepository).incrementListVersionOfTodo(1L);
+		Mockito.verify(todoRepository).deleteTodoById(1L);
+		Mockito.verify(todoRepository, Mockito.never()).findById(1L);
 	}
 	
 	@Test
 	public void testDeleteTodo_whenTodoDoesNotExist_shoulReturnTodoNotFoundException() {
 		Long id = 1L;
-		Mockito.when(todoRepository.findById(id)).thenReturn(Optional.empty());
+		Mockito.when(todoRepository.incrementListVersionOfTodo(id)).thenReturn(0);
 		
 		assertThrows(TodoNotFoundException.class, () -> {
-		    todoService.deleteTodo(1L);
+		    todoService.deleteTodo(id);
 		});
+		
+		Mockito.verify(todoRepository, Mockito.never()).deleteTodoById(id);
 	}
 	
 	@Test
@@ -136,30 +220,27 @@ class TodoServiceTest {
 				.build();
 		List<Todo> todos = List.of(todo1,todo2);
 		
-		Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-		Mockito.when(todoRepository.findByActiveAndUserId(true, 1L)).thenReturn(todos);
-		
 		List<TodoResponse> expected = todos.stream().filter(Todo::isActive).map(todo ->new TodoResponse(todo)).collect(Collectors.toList());
+		Mockito.when(todoRepository.findResponsesByActiveAndUserId(Mockito.eq(true), Mockito.eq(1L), Mockito.eq(0L), Mockito.any(Pageable.class))).thenReturn(expected);
 		
 		List<TodoResponse> result = todoService.findTodosByActive(true, 1L);
 		
 		assertIterableEquals(expected, result);
 		
-		Mockito.verify(userRepository).findById(1L);
-		Mockito.verify(todoRepository).findByActiveAndUserId(true, 1L);
+		Mockito.verifyNoInteractions(userRepository);
+		Mockito.verify(todoRepository).findResponsesByActiveAndUserId(Mockito.eq(true), Mockito.eq(1L), Mockito.eq(0L), Mockito.argThat(page -> page.getPageSize() == TodoService.LIST_LIMIT + 1));
 	}
 	
 	@Test
 	public void testFindTodosByActive_whenUserDoesNotExist_shouldReturnUserNotFoundException() {
-		Long userId = 1L;
-		Mockito.when(userRepository.findById(userId)).thenReturn(Optional.empty());
+		Long userId = 2L;
+		Mockito.when(todoRepository.findListVersion(userId)).thenReturn(Optional.empty());
 		
 		assertThrows(UserNotFoundException.class, () -> {
 			todoService.findTodosByActive(true, userId);
 		});
 		
-		Mockito.verify(userRepository).findById(userId);
-		Mockito.verifyNoInteractions(todoRepository);
+		Mockito.verify(todoRepository).findListVersion(userId);
 	}
 	
 	@Test
@@ -185,7 +266,7 @@ class TodoServiceTest {
 				.user(user)
 				.build();
 		
-		Mockito.when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+		Mockito.when(userRepository.getReferenceById(user.getId())).thenReturn(user);
 		Mockito.when(todoRepository.save(Mockito.any(Todo.class))).thenReturn(todo);
 		
 		TodoResponse expected = new TodoResponse(todo);
@@ -193,26 +274,121 @@ class TodoServiceTest {
 		
 		assertEquals(expected, result);
 		
-		Mockito.verify(userRepository).findById(1L);
+		Mockito.verify(todoRepository).incrementListVersion(1L);
+		Mockito.verify(userRepository, Mockito.never()).findById(1L);
 		Mockito.verify(todoRepository).save(Mockito.any(Todo.class));
 	}
 	
 	@Test
 	public void testCreateTodo_whenUserDoesNotExist_shouldReturnUserNotFoundException() {
-		Long userId = 1L;
+		Long userId = 2L;
 		TodoRequest todoRequest  = TodoRequest.builder()
 				.task("Yemek yap")
 				.active(true)
 				.userId(userId)
 				.build();
 		
-		Mockito.when(userRepository.findById(userId)).thenReturn(Optional.empty());
+		Mockito.when(todoRepository.incrementListVersion(userId)).thenReturn(0);
 		
 		assertThrows(UserNotFoundException.class, ()->{
 			todoService.createTodo(todoRequest);
 		});
 		
-		Mockito.verify(userRepository).findById(userId);
+		Mockito.verify(todoRepository, Mockito.never()).save(Mockito.any(Todo.class));
+	}
+	
+	@Test
+	public void testCreateTodos_shouldInsertInChunks() {
+		List<TodoRequest> requests = IntStream.range(0, TodoService.BATCH_CHUNK_SIZE + 1)
+				.mapToObj(i -> TodoRequest.builder().task("task " + i).active(true).userId(1L).build())
+				.collect(Collectors.toList());
+		Mockito.when(userRepository.countByIdIn(Set.of(1L))).thenReturn(1L);
+		
+		List<TodoResponse> result = todoService.createTodos(new TodoBatchRequest(requests));
+		
+		assertEquals(requests.size(), result.size());
+		assertTrue(result.stream().allMatch(todo -> todo.getUserId().equals(1L)));
+		Mockito.verify(todoRepository).insertAll(Mockito.argThat(chunk -> chunk.size() == TodoService.BATCH_CHUNK_SIZE));
+		Mockito.verify(todoRepository).insertAll(Mockito.argThat(chunk -> chunk.size() == 1));
+		Mockito.verify(todoRepository, Mockito.times(2)).incrementListVersion(1L);
+	}
+	
+	@Test
+	public void testCreateTodos_whenLaterChunkFails_shouldReportCommittedTodos() {
+		List<TodoRequest> requests = IntStream.range(0, TodoService.BATCH_CHUNK_SIZE + 1)
+				.mapToObj(i -> TodoRequest.builder().task("task " + i).active(true).userId(1L).build())
+				.collect(Collectors.toList());
+		Mockito.when(userRepository.countByIdIn(Set.of(1L))).thenReturn(1L);
+		Mockito.doNothing()
+				.doThrow(new DataAccessResourceFailureException("Connection lost"))
+				.when(todoRepository).insertAll(Mockito.anyList());
+		
+		BatchPartiallyCreatedException exception = assertThrows(BatchPartiallyCreatedException.class, () -> {
+			todoService.createTodos(new TodoBatchRequest(requests));
+		});
+		
+		assertEquals(TodoService.BATCH_CHUNK_SIZE, exception.getCreated().size());
+		assertEquals("task 0", exception.getCreated().get(0).getTask());
+	}
+	
+	@Test
+	public void testCreateTodos_whenFirstChunkFails_shouldRethrow() {
+		List<TodoRequest> requests = List.of(TodoRequest.builder().task("Yemek yap").active(true).userId(1L).build());
+		Mockito.when(userRepository.countByIdIn(Set.of(1L))).thenReturn(1L);
+		Mockito.doThrow(new DataAccessResourceFailureException("Connection lost"))
+				.when(todoRepository).insertAll(Mockito.anyList());
+		
+		assertThrows(DataAccessResourceFailureException.class, () -> {
+			todoService.createTodos(new TodoBatchRequest(requests));
+		});
+	}
+	
+	@Test
+	public void testCreateTodos_whenUserDoesNotExist_shouldReturnUserNotFoundException() {
+		List<TodoRequest> requests = List.of(
+				TodoRequest.builder().task("Yemek yap").active(true).userId(1L).build(),
+				TodoRequest.builder().task("Spor yap").active(true).userId(2L).build());
+		Mockito.when(userRepository.countByIdIn(Set.of(1L, 2L))).thenReturn(1L);
+		
+		assertThrows(UserNotFoundException.class, () -> {
+			todoService.createTodos(new TodoBatchRequest(requests));
+		});
+		
+		Mockito.verify(todoRepository, Mockito.never()).insertAll(Mockito.anyList());
+	}
+	
+	@Test
+	public void testUpdateActive_shouldReturnAffectedCount() {
+		long[] ids = {1L, 2L, 3L};
+		Mockito.when(todoRepository.updateActive(1L, ids, true)).thenReturn(2);
+		
+		TodoBulkResponse result = todoService.updateActive(1L, new TodoBulkUpdateRequest(ids, true));
+		
+		assertEquals(2, result.getAffected());
+		Mockito.verify(todoRepository).incrementListVersion(1L);
+		Mockito.verify(todoRepository, Mockito.never()).findById(Mockito.anyLong());
+	}
+	
+	@Test
+	public void testDeleteTodos_shouldReturnAffectedCount() {
+		long[] ids = {1L, 2L};
+		Mockito.when(todoRepository.deleteByIds(1L, ids)).thenReturn(2);
+		
+		assertEquals(2, todoService.deleteTodos(1L, new TodoIdsRequest(ids)).getAffected());
+	}
+	
+	@Test
+	public void testMarkAllDone_shouldReturnAffectedCount() {
+		Mockito.when(todoRepository.markAllDone(1L)).thenReturn(4);
+		
+		assertEquals(4, todoService.markAllDone(1L).getAffected());
+	}
+	
+	@Test
+	public void testDeleteCompleted_shouldReturnAffectedCount() {
+		Mockito.when(todoRepository.deleteCompleted(1L)).thenReturn(3);
+		
+		assertEquals(3, todoService.deleteCompleted(1L).getAffected());
 	}
 	
 	@Test
@@ -272,4 +448,50 @@ class TodoServiceTest {
 	    Mockito.verify(todoRepository).findById(todoId);
 
 	}	
+	
+	@Test
+	public void testGetTodoPage_shouldReturnNextCursorWhenMoreRowsExist() {
+		List<TodoResponse> todos = List.of(
+				new TodoResponse(5L, "Yemek yap", true, 1L),
+				new TodoResponse(7L, "Spor yap", true, 1L),
+				new TodoResponse(9L, "Kitap oku", true, 1L));
+		Mockito.when(todoRepository.findResponsesByUserId(Mockito.eq(1L), Mockito.eq(4L), Mockito.any(Pageable.class)))
+				.thenReturn(todos);
+		
+		TodoPageResponse page = todoService.getTodoPage(1L, null, TodoService.encodeCursor(4L), 2);
+		
+		assertEquals(2, page.getItems().size());
+		assertEquals(7L, TodoService.decodeCursor(page.getNext()));
+		Mockito.verifyNoInteractions(userRepository);
+		Mockito.verify(todoRepository).findResponsesByUserId(Mockito.eq(1L), Mockito.eq(4L),
+				Mockito.argThat(pageable -> pageable.getPageSize() == 3));
+	}
+	
+	@Test
+	public void testGetTodoPage_onLastPage_shouldReturnNullCursor() {
+		List<TodoResponse> todos = List.of(new TodoResponse(5L, "Yemek yap", false, 1L));
+		Mockito.when(todoRepository.findResponsesByActiveAndUserId(Mockito.eq(false), Mockito.eq(1L), Mockito.eq(0L), Mockito.any(Pageable.class)))
+				.thenReturn(todos);
+		
+		TodoPageResponse page = todoService.getTodoPage(1L, false, null, null);
+		
+		assertEquals(1, page.getItems().size());
+		assertNull(page.getNext());
+	}
+	
+	@Test
+	public void testGetTodoPage_withInvalidCursor_shouldReturnInvalidCursorException() {
+		assertThrows(InvalidCursorException.class, () -> {
+			todoService.getTodoPage(1L, null, "not a cursor", 10);
+		});
+	}
+	
+	@Test
+	public void testGetTodoPage_whenUserDoesNotExist_shouldReturnUserNotFoundException() {
+		Mockito.when(userRepository.findById(1L)).thenReturn(Optional.empty());
+		
+		assertThrows(UserNotFoundException.class, () -> {
+			todoService.getTodoPage(1L, null, null, 10);
+		});
+	}
 }
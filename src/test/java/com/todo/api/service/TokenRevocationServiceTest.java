@@ -0,0 +1,126 @@
+package com.todo.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.todo.api.TestFixtures;
+import com.todo.api.config.JwtProperties;
+import com.todo.api.config.JwtService;
+import com.todo.api.config.RevocationProperties;
+import com.todo.api.config.SigningKeyRing;
+import com.todo.api.config.VerifiedToken;
+import com.todo.api.model.AuthenticatedUser;
+import com.todo.api.model.Role;
+import com.todo.api.repository.RefreshTokenRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenRevocationServiceTest {
+
+	@TempDir
+	Path tempDir;
+
+	private JwtProperties jwtProperties;
+	private RevocationProperties revocationProperties;
+	private RefreshTokenRepository refreshTokenRepository;
+	private JwtService jwtService;
+	private TokenRevocationService tokenRevocationService;
+	private AuthenticatedUser user;
+
+	@BeforeEach
+	void setUp() {
+		jwtProperties = new JwtProperties();
+		jwtProperties.setSecretKey(TestFixtures.SECRET_KEY);
+		revocationProperties = new RevocationProperties();
+		revocationProperties.setSnapshotFile(tempDir.resolve("revocations.snapshot").toString());
+		refreshTokenRepository = Mockito.mock(RefreshTokenRepository.class);
+		jwtService = new JwtService(jwtProperties, new SimpleMeterRegistry(), new SigningKeyRing(jwtProperties, Mockito.mock(JdbcTemplate.class)));
+		tokenRevocationService = new TokenRevocationService(jwtProperties, revocationProperties, refreshTokenRepository);
+		user = new AuthenticatedUser(1L, "ahmet@gmail.com", "password", Role.USER);
+	}
+
+	@Test
+	public void testRevoke_shouldRevokeOnlyThatToken() {
+		VerifiedToken revoked = jwtService.verify(jwtService.generateToken(user));
+		VerifiedToken other = jwtService.verify(jwtService.generateToken(user));
+
+		tokenRevocationService.revoke(revoked);
+
+		assertTrue(tokenRevocationService.isRevoked(revoked));
+		assertFalse(tokenRevocationService.isRevoked(other));
+	}
+
+	@Test
+	public void testRevokeAllForUser_shouldRevokeEarlierTokensOfThatUser() throws Exception {
+		VerifiedToken earlier = jwtService.verify(jwtService.generateToken(user));
+		VerifiedToken otherUser = jwtService.verify(jwtService.generateToken(
+				new AuthenticatedUser(2L, "mehmet@gmail.com", "password", Role.USER)));
+		Thread.sleep(1000);
+
+		tokenRevocationService.revokeAllForUser(1L);
+		VerifiedToken later = jwtService.verify(jwtService.generateToken(user));
+
+		assertTrue(tokenRevocationService.isRevoked(earlier));
+		assertFalse(tokenRevocationService.isRevoked(otherUser));
+		assertFalse(tokenRevocationService.isRevoked(later));
+		Mockito.verify(refreshTokenRepository).deleteByUserId(1L);
+	}
+
+	@Test
+	public void testPruneAndFlush_shouldSurviveRestart() {
+		VerifiedToken revoked = jwtService.verify(jwtService.generateToken(user));
+		tokenRevocationService.revoke(revoked);
+		tokenRevocationService.revokeAllForUser(2L);
+
+		tokenRevocationService.pruneAndFlush();
+		TokenRevocationService restarted = new TokenRevocationService(jwtProperties, revocationProperties, refreshTokenRepository);
+		restarted.readSnapshot();
+
+		assertTrue(restarted.isRevoked(revoked));
+	}
+
+	@Test
+	public void testPruneAndFlush_shouldDropExpiredEntries() {
+		VerifiedToken expired = Mockito.mock(VerifiedToken.class);
+		Mockito.when(expired.getId()).thenReturn("expired");
+		Mockito.when(expired.getUserId()).thenReturn(1L);
+		Mockito.when(expired.getIssuedAt()).thenReturn(new Date(0));
+		Mockito.when(expired.getExpiration()).thenReturn(new Date(System.currentTimeMillis() - 1000));
+		tokenRevocationService.revoke(expired);
+		tokenRevocationService.revokeAllForUser(1L);
+		assertTrue(tokenRevocationService.isRevoked(expired));
+
+		jwtProperties.setAccessTokenExpiration(Duration.ofMinutes(-1));
+		tokenRevocationService.pruneAndFlush();
+
+		assertFalse(tokenRevocationService.isRevoked(expired));
+	}
+
+	@Test
+	public void testBloomFilter_shouldNeverReturnFalseNegatives() {
+		BloomFilter bloomFilter = new BloomFilter(1_000, 0.01);
+		for(int i = 0; i < 1_000; i++) {
+			bloomFilter.add("token-" + i);
+		}
+
+		for(int i = 0; i < 1_000; i++) {
+			assertTrue(bloomFilter.mightContain("token-" + i));
+		}
+		int falsePositives = 0;
+		for(int i = 1_000; i < 11_000; i++) {
+			if(bloomFilter.mightContain("token-" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+	}
+}
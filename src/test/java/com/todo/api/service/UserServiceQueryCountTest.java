@@ -0,0 +1,75 @@
+package com.todo.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.todo.api.config.UserDetailsCache;
+import com.todo.api.exception.UserNotFoundException;
+import com.todo.api.model.Role;
+import com.todo.api.model.User;
+import com.todo.api.repository.UserRepository;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserServiceQueryCountTest {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private UserService userService;
+	private Statistics statistics;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = entityManager.persist(User.builder()
+				.firstName("ahmet")
+				.lastName("ahmet")
+				.email("ahmet@gmail.com")
+				.password("encodedPassword")
+				.role(Role.USER)
+				.build());
+		entityManager.flush();
+		entityManager.clear();
+
+		// refresh tokens go with the user through ON DELETE CASCADE, so the revocation side is not counted here
+		userService = new UserService(userRepository, Mockito.mock(UserDetailsCache.class),
+				Mockito.mock(PasswordEncoder.class), Mockito.mock(TokenRevocationService.class),
+				new TransactionTemplate(transactionManager));
+		statistics = entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	public void testDeleteUser_shouldRunOneStatement() {
+		userService.deleteUser(user.getId());
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertFalse(userRepository.existsById(user.getId()));
+	}
+
+	@Test
+	public void testDeleteUser_whenUserDoesNotExist_shouldRunOneStatement() {
+		assertThrows(UserNotFoundException.class, () -> userService.deleteUser(-1L));
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+}
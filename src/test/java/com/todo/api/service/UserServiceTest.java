@@ -5,15 +5,27 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.todo.api.config.CacheProperties;
+import com.todo.api.config.UserDetailsCache;
 import com.todo.api.exception.NotUniqueEmailException;
 import com.todo.api.exception.UserNotFoundException;
+import com.todo.api.model.AuthenticatedUser;
 import com.todo.api.model.Role;
 import com.todo.api.model.User;
 import com.todo.api.repository.UserRepository;
@@ -21,15 +33,24 @@ import com.todo.api.request.RegisterRequest;
 import com.todo.api.request.UserUpdateRequest;
 import com.todo.api.response.UserResponse;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 class UserServiceTest {
 	
 	private UserRepository userRepository;
+	private UserDetailsCache userDetailsCache;
+	private PasswordEncoder passwordEncoder;
+	private TokenRevocationService tokenRevocationService;
 	private UserService userService;
 
 	@BeforeEach
 	void setUp() {
 		userRepository = Mockito.mock(UserRepository.class);
-        userService = new UserService(userRepository);
+		userDetailsCache = Mockito.mock(UserDetailsCache.class);
+		passwordEncoder = Mockito.mock(PasswordEncoder.class);
+		tokenRevocationService = Mockito.mock(TokenRevocationService.class);
+        userService = new UserService(userRepository, userDetailsCache, passwordEncoder, tokenRevocationService,
+        		new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)));
 	}
 	
 	@Test
@@ -108,22 +129,26 @@ class UserServiceTest {
 				.password("ahmet85")
 				.build();
 		
-		Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+		Mockito.when(userRepository.deleteUserById(user1.getId())).thenReturn(1);
 		
 		userService.deleteUser(1L);
 		
-		Mockito.verify(userRepository).deleteById(1L);
+		Mockito.verify(userRepository).deleteUserById(1L);
+		Mockito.verify(userRepository, Mockito.never()).findById(1L);
+		Mockito.verify(userDetailsCache).invalidateUser(1L);
+		Mockito.verify(tokenRevocationService).revokeAllForUser(1L);
 	}
 	
 	@Test
 	public void testDeleteUser_whenUserDoesNotExists() {
-		Mockito.when(userRepository.findById(2L)).thenReturn(Optional.empty());
+		Mockito.when(userRepository.deleteUserById(2L)).thenReturn(0);
 		
 		assertThrows(UserNotFoundException.class, () ->{
 			userService.deleteUser(2L);
 		});
 		
-		Mockito.verify(userRepository).findById(2L);
+		Mockito.verify(userRepository).deleteUserById(2L);
+		Mockito.verifyNoInteractions(tokenRevocationService, userDetailsCache);
 	}
 	
 	@Test
@@ -179,7 +204,8 @@ class UserServiceTest {
 				.role(Role.USER)
 				.build();
 		
-		Mockito.when(userRepository.findByEmail("ahmet@gmail.com")).thenReturn(Optional.of(existingUser));
+		Mockito.when(userRepository.save(Mockito.any(User.class)))
+				.thenThrow(new DataIntegrityViolationException("Duplicate entry " + existingUser.getEmail()));
 		
 		assertThrows(NotUniqueEmailException.class, () ->{
 			userService.createUser(registerRequest);
@@ -219,6 +245,9 @@ class UserServiceTest {
 	    
 	    Mockito.verify(userRepository).findById(1L);
 	    Mockito.verify(userRepository).findByEmail("yalcin@gmail.com");
+	    Mockito.verify(userDetailsCache).invalidate("ahmet@gmail.com");
+	    Mockito.verify(userDetailsCache).invalidate("yalcin@gmail.com");
+	    Mockito.verify(tokenRevocationService).revokeAllForUser(1L);
 	}
 	@Test
 	public void testUpdateUser_ThrowsNotUniqueEmailException_WhenUpdatingWithExistingEmail() {
@@ -257,6 +286,33 @@ class UserServiceTest {
 	    Mockito.verify(userRepository).findByEmail("mehmet@gmail.com");
 	    
 	}
+	@Test
+	public void testUpdateUser_whenEmailTakenConcurrently_shouldReturnNotUniqueEmailException() {
+		User existingUser = User.builder()
+				.id(1L)
+				.firstName("Ahmet")
+				.lastName("Ahmet")
+				.email("ahmet@gmail.com")
+				.password("ahmet")
+				.build();
+		UserUpdateRequest request = UserUpdateRequest.builder()
+				.userId(1L)
+				.firstName("Mehmet")
+				.lastName("Mehmet")
+				.email("mehmet@gmail.com")
+				.password("mehmet")
+				.build();
+		
+		Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+		Mockito.when(userRepository.findByEmail("mehmet@gmail.com")).thenReturn(Optional.empty());
+		Mockito.when(userRepository.save(Mockito.any(User.class)))
+				.thenThrow(new DataIntegrityViolationException("Duplicate entry mehmet@gmail.com"));
+		
+		assertThrows(NotUniqueEmailException.class, () ->{
+			userService.updateUser(request);
+		});
+	}
+	
 	@Test
 	public void testUpdateUser_withSameEmail_shouldReturnUserResponse() {
 		User existingUser = User.builder()
@@ -291,6 +347,45 @@ class UserServiceTest {
 	    Mockito.verify(userRepository).findByEmail("ahmet@gmail.com");
 	}
 	
+	@Test
+	public void testUpdateUser_whenLoginReloadsUserMidUpdate_shouldEvictAgainAfterCommit() {
+		UserDetailsCache realCache = new UserDetailsCache(new CacheProperties(), new SimpleMeterRegistry());
+		UserService service = new UserService(userRepository, realCache, passwordEncoder, tokenRevocationService,
+				new TransactionTemplate(new SynchronizingTransactionManager()));
+		User existingUser = User.builder()
+				.id(1L)
+				.email("ahmet@gmail.com")
+				.password("oldHash")
+				.role(Role.USER)
+				.build();
+		UserUpdateRequest request = UserUpdateRequest.builder()
+				.userId(1L)
+				.firstName("Ahmet")
+				.lastName("Ahmet")
+				.email("ahmet@gmail.com")
+				.password("newPassword")
+				.build();
+		AtomicInteger loads = new AtomicInteger();
+		Function<String, AuthenticatedUser> loader = email -> {
+			loads.incrementAndGet();
+			return new AuthenticatedUser(1L, email, "oldHash", Role.USER);
+		};
+		
+		Mockito.when(passwordEncoder.encode("newPassword")).thenReturn("newHash");
+		Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+		Mockito.when(userRepository.findByEmail("ahmet@gmail.com")).thenReturn(Optional.of(existingUser));
+		// a concurrent login caching the committed, old row before this update commits
+		Mockito.when(userRepository.save(existingUser)).thenAnswer(invocation -> {
+			realCache.get("ahmet@gmail.com", loader);
+			return existingUser;
+		});
+		
+		service.updateUser(request);
+		realCache.get("ahmet@gmail.com", loader);
+		
+		assertEquals(2, loads.get());
+	}
+	
 	@Test
 	public void testUpdateUser_whenUserDoesNotExist_shouldReturnUserNotFoundException() {
 		UserUpdateRequest request = UserUpdateRequest.builder()
@@ -309,4 +404,24 @@ class UserServiceTest {
 		
 		Mockito.verify(userRepository).findById(1L);
 	}
+	
+	private static class SynchronizingTransactionManager extends AbstractPlatformTransactionManager {
+		
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+		
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+		
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+		
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+	}
 }